@@ -0,0 +1,32 @@
+package generation.parser;
+
+import generation.synthetic.SyntheticConfigGenerator;
+import model.classification.OSMClassification;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the parsing of generated configs in the validated and in the single-pass CSS mode.
+ */
+@State(Scope.Benchmark)
+public class ConfigParserBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int mapFeatureCount;
+
+    private String config;
+
+    @Setup(Level.Trial)
+    public void generateConfig() {
+        config = new SyntheticConfigGenerator(OSMClassification.getOSMClassification(), 42).generate(mapFeatureCount).getContent();
+    }
+
+    @Benchmark
+    public ConfigParseResult parse() {
+        return ConfigParser.parse(config, false);
+    }
+
+    @Benchmark
+    public ConfigParseResult parseSinglePass() {
+        return ConfigParser.parse(config, true);
+    }
+}
@@ -0,0 +1,190 @@
+package generation.processing;
+
+import generation.parser.ConfigParseResult;
+import generation.parser.ConfigParser;
+import generation.synthetic.SyntheticConfig;
+import generation.synthetic.SyntheticConfigGenerator;
+import model.classification.Classification;
+import model.classification.OSMClassification;
+import model.styling.MapFeature;
+import org.apache.commons.io.FileUtils;
+import org.geotools.styling.StyledLayerDescriptor;
+import org.openjdk.jmh.annotations.*;
+import util.ConcurrencyHelper;
+import util.SLDWrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Measures every stage of {@link ParseResultProcessor#getStyledLayerDescriptorsFromParseResult(ConfigParseResult, boolean)}
+ * and the serialization of the resulting SLDs.
+ * <p>
+ * The stages modify the MapFeatures they are given, so the input of a stage is created again before every invocation
+ * by running the previous stages. This is excluded from the measurement.
+ * <p>
+ * The translation and the writing of the SLDs are measured with the defaults of the OSM classification, which is what
+ * a generation without a config produces, and with different amounts of workers.
+ */
+public class ParseResultProcessorBenchmark {
+
+    public enum Stage {
+        PARSED, PLACEHOLDERS_RESOLVED, REFERENCES_RESOLVED, DEFAULTS_FILLED
+    }
+
+    @State(Scope.Benchmark)
+    public static class GeneratedConfig {
+
+        @Param({"10", "1000", "10000"})
+        public int mapFeatureCount;
+
+        private SyntheticConfig syntheticConfig;
+
+        @Setup(Level.Trial)
+        public void generateConfig() {
+            syntheticConfig = new SyntheticConfigGenerator(OSMClassification.getOSMClassification(), 42).generate(mapFeatureCount);
+        }
+
+        Classification getClassification() {
+            return syntheticConfig.getClassification();
+        }
+
+        ConfigParseResult parse() {
+            return ConfigParser.parse(syntheticConfig.getContent());
+        }
+    }
+
+    /**
+     * Holds the output of the pipeline up to (and including) a stage.
+     */
+    public abstract static class StageInput {
+
+        ConfigParseResult parseResult;
+        Collection<MapFeature> mapFeatures;
+
+        void runUpTo(Stage stage, GeneratedConfig generatedConfig) {
+            parseResult = generatedConfig.parse();
+            mapFeatures = parseResult.getMapFeatures();
+            if (stage.compareTo(Stage.PLACEHOLDERS_RESOLVED) >= 0) {
+                mapFeatures = PlaceholderRuleResolver.resolvePlaceholderRules(mapFeatures, parseResult.getStyleGroups());
+            }
+            if (stage.compareTo(Stage.REFERENCES_RESOLVED) >= 0) {
+                mapFeatures = new MapFeatureReferenceResolver(generatedConfig.getClassification()).resolveMapFeatureReferences(mapFeatures);
+            }
+            if (stage.compareTo(Stage.DEFAULTS_FILLED) >= 0) {
+                mapFeatures = DefaultsFiller.fillRemaining(mapFeatures, generatedConfig.getClassification());
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Parsed extends StageInput {
+        @Setup(Level.Invocation)
+        public void setup(GeneratedConfig generatedConfig) {
+            runUpTo(Stage.PARSED, generatedConfig);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PlaceholdersResolved extends StageInput {
+        @Setup(Level.Invocation)
+        public void setup(GeneratedConfig generatedConfig) {
+            runUpTo(Stage.PLACEHOLDERS_RESOLVED, generatedConfig);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ReferencesResolved extends StageInput {
+        @Setup(Level.Invocation)
+        public void setup(GeneratedConfig generatedConfig) {
+            runUpTo(Stage.REFERENCES_RESOLVED, generatedConfig);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DefaultsFilled extends StageInput {
+        @Setup(Level.Invocation)
+        public void setup(GeneratedConfig generatedConfig) {
+            runUpTo(Stage.DEFAULTS_FILLED, generatedConfig);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OSMDefaultsSplit {
+
+        @Param({"1", "2", "4", "8"})
+        public int workerCount;
+
+        Collection<MapFeature> mapFeatures;
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            mapFeatures = splitOSMDefaults();
+        }
+    }
+
+    // writing does not modify the SLDs, so they are created only once
+    @State(Scope.Thread)
+    public static class OSMDefaultsTranslated {
+
+        @Param({"1", "2", "4", "8"})
+        public int workerCount;
+
+        Collection<StyledLayerDescriptor> styledLayerDescriptors;
+        File targetDirectory;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            styledLayerDescriptors = MapFeatureTranslator.createStyledLayerDescriptorsFrom(splitOSMDefaults());
+            targetDirectory = Files.createTempDirectory("sld-benchmark").toFile();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            FileUtils.deleteDirectory(targetDirectory);
+        }
+    }
+
+    private static Collection<MapFeature> splitOSMDefaults() {
+        Collection<MapFeature> mapFeatures = DefaultsFiller.fillRemaining(new ArrayList<>(), OSMClassification.getOSMClassification());
+        return MapFeatureGeometrySplitter.splitMapFeaturesIntoGeometryTypes(mapFeatures);
+    }
+
+    @Benchmark
+    public Collection<MapFeature> resolvePlaceholderRules(Parsed input) {
+        return PlaceholderRuleResolver.resolvePlaceholderRules(input.mapFeatures, input.parseResult.getStyleGroups());
+    }
+
+    @Benchmark
+    public Collection<MapFeature> resolveMapFeatureReferences(PlaceholdersResolved input, GeneratedConfig generatedConfig) {
+        return new MapFeatureReferenceResolver(generatedConfig.getClassification()).resolveMapFeatureReferences(input.mapFeatures);
+    }
+
+    @Benchmark
+    public Collection<MapFeature> fillDefaults(ReferencesResolved input, GeneratedConfig generatedConfig) {
+        return DefaultsFiller.fillRemaining(input.mapFeatures, generatedConfig.getClassification());
+    }
+
+    @Benchmark
+    public Collection<MapFeature> splitIntoGeometryTypes(DefaultsFilled input) {
+        return MapFeatureGeometrySplitter.splitMapFeaturesIntoGeometryTypes(input.mapFeatures);
+    }
+
+    @Benchmark
+    public Collection<StyledLayerDescriptor> translate(OSMDefaultsSplit input) {
+        return MapFeatureTranslator.createStyledLayerDescriptorsFrom(input.mapFeatures, input.workerCount);
+    }
+
+    /**
+     * Writes the SLDs like the generator does, every SLD is serialized with its own SLDTransformer.
+     */
+    @Benchmark
+    public List<File> serialize(OSMDefaultsTranslated input) {
+        return ConcurrencyHelper.mapInOrder(input.styledLayerDescriptors,
+                sld -> new SLDWrapper(sld).writeFileTo(input.targetDirectory), input.workerCount);
+    }
+}
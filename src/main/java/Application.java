@@ -1,9 +1,17 @@
 import cli.GeneratorCommand;
+import cli.SyntheticConfigCommand;
 import picocli.CommandLine;
 
+import java.util.Arrays;
+
 public class Application {
 
     public int run(String[] args) {
+        // dispatched manually because the required config file of the GeneratorCommand would also be required for subcommands
+        if (args.length > 0 && args[0].equals(SyntheticConfigCommand.NAME)) {
+            return new CommandLine(new SyntheticConfigCommand()).execute(Arrays.copyOfRange(args, 1, args.length));
+        }
+
         int exitCode = new CommandLine(new GeneratorCommand()).execute(args);
         return exitCode;
     }
@@ -2,21 +2,36 @@ package cli;
 
 import db.DataSourceConfig;
 import db.DataSourceFactory;
+import db.DatabaseConfigurator;
+import generation.incremental.DependencyHasher;
+import generation.incremental.GenerationManifest;
 import generation.parser.ConfigParseResult;
 import generation.parser.ConfigParser;
 import generation.parser.ParseException;
+import generation.processing.FilterPushdownChecker;
+import generation.processing.MapFeatureGeometrySplitter;
 import generation.processing.ParseResultProcessor;
 import geoserver.GeoServerConfigurator;
+import geoserver.cataloginfo.bounds.BoundsProviderFactory;
+import geoserver.cataloginfo.bounds.BoundsStrategy;
 import geoserver.connection.ServerConnectionConfig;
 import geoserver.connection.ServerConnectionFactory;
+import metrics.MetricsRecorder;
 import model.classification.Classification;
 import model.classification.ClassificationFactory;
+import model.styling.MapFeature;
+import org.apache.commons.io.FilenameUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.geotools.styling.StyledLayerDescriptor;
+import org.jetbrains.annotations.Nullable;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
 import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
+import util.ConcurrencyHelper;
 import util.SLDWrapper;
 
 import javax.sql.DataSource;
@@ -26,15 +41,22 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Command(description = "Generates styles for the OHDM GeoServer based on a configuration ohdmConfigFile.",
         name = "ohdm-style-generator", mixinStandardHelpOptions = true, version = "ohdm-style-generator 1.0")
 public class GeneratorCommand implements Callable<Integer> {
     private final Logger logger = LogManager.getLogger(GeneratorCommand.class);
 
+    @Spec
+    CommandSpec spec;
+
+    private DataSourceConfig dataSourceConfig;
+    private final MetricsRecorder metricsRecorder = new MetricsRecorder();
+
     static File DEFAULT_OUTPUT_DIRECTORY;
 
     static {
@@ -61,8 +83,88 @@ public class GeneratorCommand implements Callable<Integer> {
     @Option(names = {"-d", "--generate-defaults"}, description = "Defines whether defaults should be generated for MapFeatures that are not declared.")
     boolean generateDefaults = false;
 
+    @Option(names = {"--single-pass-css"}, description = "Parses the CSS of every style declaration only once with GeoTools instead of validating it with the built-in CSS grammar first.")
+    boolean singlePassCss = false;
+
+    @Option(names = {"-w", "--workers"}, description = "The amount of threads that are used to translate and write the SLDs. Default: ${DEFAULT-VALUE}")
+    int workerCount = 1;
+
+    @Option(names = {"-i", "--incremental"}, description = "Only regenerates the SLDs of MapFeatures whose declaration, used StyleGroups or classification entry changed since the last run into the output directory.")
+    boolean incremental = false;
+
+    @Option(names = {"--sync"}, description = "Only uploads files to the GeoServer whose content changed since the last upload.")
+    boolean syncUploads = false;
+
+    @Option(names = {"--upload-channels"}, description = "The amount of SFTP channels used to upload files to the GeoServer concurrently.")
+    int uploadChannels = 1;
+
+    @Option(names = {"--archive-upload"}, description = "Uploads the files to the GeoServer as a single archive that is extracted on the server. Requires tar on the server.")
+    boolean archiveUploads = false;
+
+    @Option(names = {"--bounds-workers"}, description = "The amount of layers whose bounds are queried from the database concurrently while configuring the GeoServer.")
+    int boundsWorkers = 1;
+
+    @Option(names = {"--bounds"}, description = "How the bounds of the layers are retrieved. Valid values: ${COMPLETION-CANDIDATES}. Default: ${DEFAULT-VALUE}")
+    BoundsStrategy boundsStrategy = BoundsStrategy.EXACT;
+
+    @Option(names = {"--bounds-cache"}, description = "The file that stores the bounds of the layers for the CACHED bounds strategy. Defaults to a file in the output directory.")
+    File boundsCacheFile = null;
+
+    @Option(names = {"--prune-empty"}, description = "Does not generate SLDs for geometry types of a MapFeature that have no rules, e.g. aeroway_points if aeroway only declares line styles.")
+    boolean pruneEmpty = false;
+
+    @Option(names = {"--prune-without-data"}, description = "Does not generate SLDs for geometry types whose table (e.g. aeroway_points) is missing or empty. Requires a database config.")
+    boolean pruneWithoutData = false;
+
+    @Option(names = {"--merge-styles"}, description = "Merges the styles of all subclasses of a MapFeature into a single rendering pass, so that GeoServer queries the data of a layer only once per tile.")
+    boolean mergeStyles = false;
+
+    @Option(names = {"--merge-rules"}, description = "Merges the rules of subclasses that share the same style into a single rule with a subclassname IN (...) filter.")
+    boolean mergeRules = false;
+
+    @Option(names = {"--normalize-filters"}, description = "Simplifies the filters of all rules and removes rules whose filter can never match.")
+    boolean normalizeFilters = false;
+
+    @Option(names = {"--merge-zoom-ranges"}, description = "Merges identical rules whose scale ranges touch into a single rule and reports identical rules whose scale ranges overlap.")
+    boolean mergeZoomRanges = false;
+
+    @Option(names = {"--check-pushdown"}, description = "Reports every rule whose filter the PostGIS store of the GeoServer can't translate to SQL, which makes GeoServer fetch the whole table.")
+    boolean checkPushdown = false;
+
+    @Option(names = {"--fail-on-unpushable"}, description = "Like --check-pushdown, but exits with an error without writing any SLD if a filter can't be translated to SQL.")
+    boolean failOnUnpushable = false;
+
+    @Option(names = {"--encode-functions"}, description = "Set this if the PostGIS store of the GeoServer encodes functions, so that the pushdown check accepts filters with supported functions.")
+    boolean encodeFunctions = false;
+
+    @Option(names = {"--metrics-out"}, description = "Writes the duration, CPU time, allocated memory and object counts of every stage to this JSON file. Relative paths are resolved against the output directory.")
+    File metricsReportFile = null;
+
     @Override
     public Integer call() throws Exception {
+        try {
+            return generate();
+        } finally {
+            DataSourceFactory.closeSharedDataSources();
+            writeMetricsReport();
+        }
+    }
+
+    private void writeMetricsReport() {
+        if (metricsReportFile == null) {
+            return;
+        }
+
+        File reportFile = metricsReportFile.isAbsolute() ? metricsReportFile : Paths.get(outputDirectory.getAbsolutePath(), metricsReportFile.getPath()).toFile();
+        try {
+            metricsRecorder.writeReport(reportFile);
+            logger.info("Wrote metrics report to {}.", reportFile.getAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Could not write the metrics report. \n\t Cause: {}", e.getMessage());
+        }
+    }
+
+    private int generate() throws Exception {
         assertArguments();
         // create directory if it doesn't exist
         if (!Files.exists(Paths.get(outputDirectory.getAbsolutePath()))) {
@@ -70,16 +172,51 @@ public class GeneratorCommand implements Callable<Integer> {
             Files.createDirectories(outputDirectory.toPath());
         }
 
-        Classification classification = getClassification();
-
+        Classification classification;
+        try (MetricsRecorder.Stage stage = metricsRecorder.startStage("classification")) {
+            classification = getClassification();
+            stage.count("classes", classification.getClasses().size());
+        }
 
-        Collection<StyledLayerDescriptor> styledLayerDescriptors = getSLDs(classification);
-        if (styledLayerDescriptors == null) {
-            // return with non-zero exit code
-            return 1;
+        ConfigParseResult configParseResult;
+        try (MetricsRecorder.Stage stage = metricsRecorder.startStage("parse")) {
+            configParseResult = parseConfig();
+            if (configParseResult == null) {
+                // return with non-zero exit code
+                return 1;
+            }
+            MetricsRecorder.countMapFeatures(stage, configParseResult.getMapFeatures());
+            stage.count("styleGroups", configParseResult.getStyleGroups().size());
         }
 
-        Collection<File> sldFiles = writeSLDsToFiles(styledLayerDescriptors, outputDirectory);
+        // the hashes have to be computed before the parse result is processed
+        Map<String, String> sourceHashes = DependencyHasher.computeHashes(configParseResult, classification, generateDefaults);
+        // the generated geometry types depend on the table contents if they are pruned
+        Set<String> tablesWithRows = pruneWithoutData ? getTablesWithRows() : null;
+        Map<String, String> dependencyHashes = tablesWithRows != null ? DependencyHasher.addTableContents(sourceHashes, tablesWithRows) : sourceHashes;
+        String generationOptions = getGenerationOptions();
+        GenerationManifest previousManifest = incremental ? GenerationManifest.loadFrom(outputDirectory) : new GenerationManifest(generationOptions);
+        // evaluated only once, because writing the SLDs changes which files exist
+        Set<String> outdatedMapFeatures = dependencyHashes.keySet().stream()
+                .filter(mapFeatureName -> !previousManifest.isUpToDate(mapFeatureName, dependencyHashes.get(mapFeatureName), generationOptions, outputDirectory))
+                .collect(Collectors.toSet());
+
+        Collection<StyledLayerDescriptor> styledLayerDescriptors = getSLDs(classification, configParseResult, tablesWithRows,
+                mapFeature -> !dependencyHashes.containsKey(mapFeature.getName()) || outdatedMapFeatures.contains(mapFeature.getName()));
+        if (checkPushdown || failOnUnpushable) {
+            int unpushableFilterCount = checkPushdown(styledLayerDescriptors);
+            if (failOnUnpushable && unpushableFilterCount > 0) {
+                logger.error("{} rule filters can't be translated to SQL. No SLDs were written.", unpushableFilterCount);
+                // return with non-zero exit code
+                return 1;
+            }
+        }
+        Collection<File> writtenSLDFiles;
+        try (MetricsRecorder.Stage stage = metricsRecorder.startStage("sldWriting")) {
+            writtenSLDFiles = writeSLDsToFiles(styledLayerDescriptors, outputDirectory);
+            MetricsRecorder.countFiles(stage, writtenSLDFiles);
+        }
+        Collection<File> sldFiles = updateManifest(previousManifest, dependencyHashes, generationOptions, writtenSLDFiles, outdatedMapFeatures);
 
         if (connectionConfigFile != null) {
             configureGeoServer(classification, sldFiles);
@@ -89,6 +226,10 @@ public class GeneratorCommand implements Callable<Integer> {
     }
 
     private void assertArguments() throws FileNotFoundException {
+        if (uploadChannels < 1) {
+            throw new ParameterException(spec.commandLine(), "--upload-channels must be at least 1, but was " + uploadChannels + ".");
+        }
+
         if (!Files.exists(Paths.get(ohdmConfigFile.getAbsolutePath()))) {
             logger.error("The provided configuration does not exist: {}", ohdmConfigFile.getAbsolutePath());
             throw new FileNotFoundException("File not found!");
@@ -105,25 +246,32 @@ public class GeneratorCommand implements Callable<Integer> {
     }
 
     private Collection<File> writeSLDsToFiles(Collection<StyledLayerDescriptor> styledLayerDescriptors, File targetDirectory) {
-        Collection<File> sldFiles = new ArrayList<>();
-
-        styledLayerDescriptors.forEach(sld -> {
+        return ConcurrencyHelper.mapInOrder(styledLayerDescriptors, sld -> {
             SLDWrapper sldWrapper = new SLDWrapper(sld);
             File file = sldWrapper.writeFileTo(targetDirectory);
             logger.info("Writing SLD {} to file {}...", sld.getName(), file.getPath());
-            sldFiles.add(file);
-        });
+            return file;
+        }, workerCount);
+    }
 
-        return sldFiles;
+    /**
+     * Reads the database config only once so that all database consumers share its connection pool.
+     */
+    private DataSourceConfig getDataSourceConfig() throws FileNotFoundException {
+        if (dataSourceConfig == null) {
+            dataSourceConfig = DataSourceFactory.createDataSourceConfigFromJSON(databaseConfigFile);
+        }
+        return dataSourceConfig;
     }
 
     private Classification getClassification() {
         Classification classification;
         if (databaseConfigFile != null) {
             try {
-                DataSourceConfig dataSourceConfig = DataSourceFactory.createDataSourceConfigFromJSON(databaseConfigFile);
+                DataSourceConfig dataSourceConfig = getDataSourceConfig();
                 DataSource dataSource = DataSourceFactory.createDataSourceFrom(dataSourceConfig);
-                classification = ClassificationFactory.getClassificationFromDataSource(dataSource);
+                int fetchSize = dataSourceConfig.getFetchSize() > 0 ? dataSourceConfig.getFetchSize() : ClassificationFactory.DEFAULT_FETCH_SIZE;
+                classification = ClassificationFactory.getClassificationFromDataSource(dataSource, fetchSize);
             } catch (SQLException | FileNotFoundException ex) {
                 logger.error("Something went wrong while retrieving the classification from the defined datasource. \n {} \n Using the default classification instead.", ex.getMessage());
                 classification = ClassificationFactory.getDefaultClassification();
@@ -136,28 +284,141 @@ public class GeneratorCommand implements Callable<Integer> {
         return classification;
     }
 
-    private Collection<StyledLayerDescriptor> getSLDs(Classification classification) {
+    private ConfigParseResult parseConfig() {
         try {
-            ConfigParseResult configParseResult = ConfigParser.parse(ohdmConfigFile);
-            ParseResultProcessor parseResultProcessor = new ParseResultProcessor(classification);
-            return parseResultProcessor.getStyledLayerDescriptorsFromParseResult(configParseResult, generateDefaults);
+            return ConfigParser.parse(ohdmConfigFile, singlePassCss);
         } catch (ParseException | IOException e) {
             logger.error("Something went wrong while parsing the OHDM configuration file. \n\t Cause: {}", e.getMessage());
             return null;
         }
     }
 
+    /**
+     * @param tablesWithRows The tables that contain rows if geometry types without data are pruned, otherwise null
+     */
+    private Collection<StyledLayerDescriptor> getSLDs(Classification classification, ConfigParseResult configParseResult, @Nullable Set<String> tablesWithRows, Predicate<MapFeature> mapFeatureFilter) {
+        ParseResultProcessor parseResultProcessor = new ParseResultProcessor(classification, workerCount);
+        parseResultProcessor.setMetricsRecorder(metricsRecorder);
+        parseResultProcessor.setPruneEmptyGeometryTypes(pruneEmpty);
+        parseResultProcessor.setMergeFeatureTypeStyles(mergeStyles);
+        parseResultProcessor.setMergeSubclassRules(mergeRules);
+        parseResultProcessor.setNormalizeFilters(normalizeFilters);
+        parseResultProcessor.setMergeScaleRanges(mergeZoomRanges);
+        parseResultProcessor.setTablesWithRows(tablesWithRows);
+        return parseResultProcessor.getStyledLayerDescriptorsFromParseResult(configParseResult, generateDefaults, mapFeatureFilter);
+    }
+
+    /**
+     * Logs every rule whose filter is at least partially evaluated in memory by the PostGIS store.
+     *
+     * @return the amount of these rules
+     */
+    private int checkPushdown(Collection<StyledLayerDescriptor> styledLayerDescriptors) {
+        try (MetricsRecorder.Stage stage = metricsRecorder.startStage("pushdownCheck")) {
+            FilterPushdownChecker filterPushdownChecker = new FilterPushdownChecker(encodeFunctions);
+            List<FilterPushdownChecker.UnpushableFilter> unpushableFilters = filterPushdownChecker.check(styledLayerDescriptors);
+            unpushableFilters.forEach(unpushableFilter -> logger.warn("Filter is evaluated in memory instead of SQL: {}", unpushableFilter));
+
+            long unpushableSLDCount = unpushableFilters.stream().map(FilterPushdownChecker.UnpushableFilter::getSldName).distinct().count();
+            logger.info("Checked {} rules, {} rules of {} SLDs can't be translated to SQL.", filterPushdownChecker.getCheckedRules(), unpushableFilters.size(), unpushableSLDCount);
+            stage.count("rules", filterPushdownChecker.getCheckedRules());
+            stage.count("unpushableRules", unpushableFilters.size());
+            stage.count("unpushableSlds", unpushableSLDCount);
+            return unpushableFilters.size();
+        }
+    }
+
+    /**
+     * @return the names of the tables that contain rows or null if they cannot be retrieved
+     */
+    private Set<String> getTablesWithRows() {
+        if (databaseConfigFile == null) {
+            logger.warn("Geometry types without data can only be removed with a database config. Keeping all geometry types.");
+            return null;
+        }
+
+        try (MetricsRecorder.Stage stage = metricsRecorder.startStage("tableRowCheck")) {
+            DatabaseConfigurator databaseConfigurator = new DatabaseConfigurator(DataSourceFactory.getSharedDataSourceWrapper(getDataSourceConfig()));
+            Set<String> tablesWithRows = databaseConfigurator.getTablesWithRows();
+            stage.count("tablesWithRows", tablesWithRows.size());
+            return tablesWithRows;
+        } catch (SQLException | FileNotFoundException e) {
+            logger.error("Could not check which tables contain rows. Keeping all geometry types. \n\t Cause: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the options that change the content of the generated SLDs
+     */
+    private String getGenerationOptions() {
+        return "defaults=" + generateDefaults + ";pruneEmpty=" + pruneEmpty + ";pruneWithoutData=" + pruneWithoutData
+                + ";mergeStyles=" + mergeStyles + ";mergeRules=" + mergeRules
+                + ";normalizeFilters=" + normalizeFilters + ";mergeZoomRanges=" + mergeZoomRanges;
+    }
+
+    /**
+     * Records the written SLD files in the manifest of the output directory. MapFeatures that were skipped keep the
+     * files of the previous manifest.
+     *
+     * @param outdatedMapFeatures The MapFeatures that were regenerated, they may have no files if all of their
+     *                            geometry types were pruned
+     * @return all SLD files that belong to the current configuration, including the ones that were not rewritten
+     */
+    private Collection<File> updateManifest(GenerationManifest previousManifest, Map<String, String> dependencyHashes, String generationOptions, Collection<File> writtenSLDFiles, Set<String> outdatedMapFeatures) {
+        Map<String, List<String>> writtenFileNames = new HashMap<>();
+        writtenSLDFiles.forEach(file -> {
+            String mapFeatureName = MapFeatureGeometrySplitter.getBaseName(FilenameUtils.removeExtension(file.getName()));
+            writtenFileNames.computeIfAbsent(mapFeatureName, name -> new ArrayList<>()).add(file.getName());
+        });
+
+        GenerationManifest manifest = new GenerationManifest(generationOptions);
+        Collection<File> sldFiles = new ArrayList<>();
+        int skippedMapFeatures = 0;
+        for (Map.Entry<String, String> dependencyHash : dependencyHashes.entrySet()) {
+            String mapFeatureName = dependencyHash.getKey();
+            Collection<String> fileNames;
+            if (outdatedMapFeatures.contains(mapFeatureName)) {
+                fileNames = writtenFileNames.getOrDefault(mapFeatureName, Collections.emptyList());
+            } else {
+                fileNames = previousManifest.getFileNames(mapFeatureName);
+                skippedMapFeatures++;
+            }
+
+            manifest.putEntry(mapFeatureName, dependencyHash.getValue(), fileNames);
+            fileNames.forEach(fileName -> sldFiles.add(Paths.get(outputDirectory.getAbsolutePath(), fileName).toFile()));
+        }
+
+        if (incremental) {
+            logger.info("Skipped {} unchanged MapFeatures, wrote {} SLD files.", skippedMapFeatures, writtenSLDFiles.size());
+        }
+
+        try {
+            manifest.saveTo(outputDirectory);
+        } catch (IOException e) {
+            logger.warn("Could not save the manifest to {}. The next incremental run will regenerate all SLDs. \n\t Cause: {}", outputDirectory.getAbsolutePath(), e.getMessage());
+        }
+
+        return sldFiles;
+    }
+
     private void configureGeoServer(Classification classification, Collection<File> sldFiles) throws FileNotFoundException {
         ServerConnectionConfig serverConnectionConfig = ServerConnectionFactory.createConnectionConfigFromJSON(connectionConfigFile);
 
         GeoServerConfigurator configurator = GeoServerConfigurator.getInstance(serverConnectionConfig);
+        configurator.setSyncUploads(syncUploads);
+        configurator.setUploadChannels(uploadChannels);
+        configurator.setArchiveUploads(archiveUploads);
+        configurator.setBoundsWorkers(boundsWorkers);
+        configurator.setMetricsRecorder(metricsRecorder);
+        configurator.setBoundsStrategy(boundsStrategy, boundsCacheFile != null ? boundsCacheFile : Paths.get(outputDirectory.getAbsolutePath(), BoundsProviderFactory.DEFAULT_CACHE_FILE_NAME).toFile());
         try {
             logger.info("Uploading generated SLDs to GeoServer...");
             configurator.uploadSLDsToGeoServer(sldFiles);
 
             if (databaseConfigFile != null) {
                 logger.info("Starting configuration of GeoServer with database config...");
-                DataSourceConfig dataSourceConfig = DataSourceFactory.createDataSourceConfigFromJSON(databaseConfigFile);
+                DataSourceConfig dataSourceConfig = getDataSourceConfig();
                 configurator.configureGeoServerWithDataSource(classification, sldFiles, dataSourceConfig);
             } else {
                 logger.info("Starting configuration of GeoServer without database config...");
@@ -0,0 +1,86 @@
+package cli;
+
+import generation.synthetic.SyntheticConfig;
+import generation.synthetic.SyntheticConfigGenerator;
+import generation.synthetic.SyntheticConfigSettings;
+import model.classification.ClassificationFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+
+@Command(description = "Generates a large OHDM configuration based on the default classification to stress test the generation.",
+        name = SyntheticConfigCommand.NAME, mixinStandardHelpOptions = true, version = "ohdm-style-generator 1.0")
+public class SyntheticConfigCommand implements Callable<Integer> {
+
+    public static final String NAME = "synthetic-config";
+
+    private final Logger logger = LogManager.getLogger(SyntheticConfigCommand.class);
+
+    @Parameters(arity = "1", index = "0", description = "The file the generated configuration is written to.")
+    File outputFile = null;
+
+    @Option(names = {"-n", "--map-features"}, description = "The amount of MapFeatures. Default: ${DEFAULT-VALUE}")
+    int mapFeatureCount = 1000;
+
+    @Option(names = {"-g", "--style-groups"}, description = "The amount of StyleGroups. Default: ${DEFAULT-VALUE}")
+    int styleGroupCount = 12;
+
+    @Option(names = {"--subclasses"}, description = "The maximum amount of subclasses per MapFeature. Default: ${DEFAULT-VALUE}")
+    int maxSubclasses = 3;
+
+    @Option(names = {"--zoom-regions"}, description = "The maximum amount of zoom regions per subclass. Default: ${DEFAULT-VALUE}")
+    int maxZoomRegions = 2;
+
+    @Option(names = {"--use-style-ratio"}, description = "The share of zoom regions that use StyleGroups instead of declaring CSS. Default: ${DEFAULT-VALUE}")
+    double useStyleRatio = 0.9;
+
+    @Option(names = {"--same-as-ratio"}, description = "The share of MapFeatures that reference another MapFeature. Default: ${DEFAULT-VALUE}")
+    double sameAsRatio = 0.1;
+
+    @Option(names = {"--same-as-chain"}, description = "The maximum amount of sameAs references that follow each other. Default: ${DEFAULT-VALUE}")
+    int maxSameAsChainLength = 2;
+
+    @Option(names = {"--nested-style-group-ratio"}, description = "The share of StyleGroups that reference other StyleGroups. Default: ${DEFAULT-VALUE}")
+    double nestedStyleGroupRatio = 0.1;
+
+    @Option(names = {"--complex-css-ratio"}, description = "The share of CSS declarations that contain labels. Default: ${DEFAULT-VALUE}")
+    double complexCssRatio = 0.3;
+
+    @Option(names = {"--seed"}, description = "The seed of the generator, the same seed and options generate the same configuration. Default: ${DEFAULT-VALUE}")
+    long seed = 42;
+
+    @Override
+    public Integer call() {
+        SyntheticConfigSettings settings = new SyntheticConfigSettings();
+        settings.setMapFeatureCount(mapFeatureCount);
+        settings.setStyleGroupCount(styleGroupCount);
+        settings.setMaxSubclassesPerMapFeature(maxSubclasses);
+        settings.setMaxZoomRegionsPerSubclass(maxZoomRegions);
+        settings.setUseStyleRatio(useStyleRatio);
+        settings.setSameAsRatio(sameAsRatio);
+        settings.setMaxSameAsChainLength(maxSameAsChainLength);
+        settings.setNestedStyleGroupRatio(nestedStyleGroupRatio);
+        settings.setComplexCssRatio(complexCssRatio);
+
+        try {
+            SyntheticConfig syntheticConfig = new SyntheticConfigGenerator(ClassificationFactory.getDefaultClassification(), settings, seed).generate();
+            if (outputFile.getAbsoluteFile().getParentFile() != null) {
+                Files.createDirectories(outputFile.getAbsoluteFile().getParentFile().toPath());
+            }
+            Files.write(outputFile.toPath(), syntheticConfig.getContent().getBytes(StandardCharsets.UTF_8));
+            logger.info("Wrote configuration with {} MapFeatures to {}.", mapFeatureCount, outputFile.getAbsolutePath());
+            return 0;
+        } catch (IllegalArgumentException | IOException e) {
+            logger.error("Could not generate the configuration. \n\t Cause: {}", e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -8,6 +8,12 @@ public class DataSourceConfig {
     private String user;
     private String password;
     private String schema;
+    private int fetchSize = 0; // amount of rows fetched per round trip when reading large tables, 0 uses the default
+
+    // connection pool, a poolSize of 0 opens a new connection for every request
+    private int poolSize = 0;
+    private int poolIdleTimeout = 600; // seconds after which idle connections are closed
+    private String validationQuery; // query used to check connections before they are handed out, null uses the JDBC validity check
 
     public DataSourceConfig() {
     }
@@ -59,4 +65,36 @@ public class DataSourceConfig {
     public void setSchema(String schema) {
         this.schema = schema;
     }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getPoolIdleTimeout() {
+        return poolIdleTimeout;
+    }
+
+    public void setPoolIdleTimeout(int poolIdleTimeout) {
+        this.poolIdleTimeout = poolIdleTimeout;
+    }
+
+    public String getValidationQuery() {
+        return validationQuery;
+    }
+
+    public void setValidationQuery(String validationQuery) {
+        this.validationQuery = validationQuery;
+    }
 }
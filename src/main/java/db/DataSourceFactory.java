@@ -7,9 +7,14 @@ import javax.sql.DataSource;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 public class DataSourceFactory {
 
+    // one wrapper per config so that all consumers of a config share its connection pool
+    private static final Map<DataSourceConfig, DataSourceWrapper> sharedDataSourceWrappers = new IdentityHashMap<>();
+
     public static DataSourceConfig createDataSourceConfigFromJSON(File file) throws FileNotFoundException {
         Gson gson = new Gson();
         JsonReader reader = new JsonReader(new FileReader(file));
@@ -20,8 +25,24 @@ public class DataSourceFactory {
         return new DataSourceWrapper(dataSourceConfig);
     }
 
+    /**
+     * @return the wrapper for the dataSourceConfig, which is created on the first call and shared by all subsequent calls
+     * with the same config
+     */
+    public static synchronized DataSourceWrapper getSharedDataSourceWrapper(DataSourceConfig dataSourceConfig) {
+        return sharedDataSourceWrappers.computeIfAbsent(dataSourceConfig, DataSourceFactory::createDataSourceWrapperFrom);
+    }
+
+    /**
+     * Closes the connection pools of all shared wrappers.
+     */
+    public static synchronized void closeSharedDataSources() {
+        sharedDataSourceWrappers.values().forEach(DataSourceWrapper::close);
+        sharedDataSourceWrappers.clear();
+    }
+
     public static DataSource createDataSourceFrom(DataSourceConfig dataSourceConfig) {
-        DataSourceWrapper wrapper = createDataSourceWrapperFrom(dataSourceConfig);
+        DataSourceWrapper wrapper = getSharedDataSourceWrapper(dataSourceConfig);
         return wrapper.getDataSource();
     }
 }
@@ -1,18 +1,29 @@
 package db;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.postgresql.ds.PGSimpleDataSource;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Wraps a PGSimpleDataSource because the DataSource interface itself does not provide methods to change the schema.
  * You would usually set the schema you want and call getConnection() afterwards to establish a new connection that uses the schema.
+ * <p>
+ * If the config defines a pool size, connections are taken from a pool instead. Pooled connections are switched to the
+ * current schema when they are handed out by getConnection(). The pool resets every connection whose schema was changed
+ * to the schema of the config when it is returned, so connections of getDataSource() always use the schema of the config.
  */
-public class DataSourceWrapper {
+public class DataSourceWrapper implements AutoCloseable {
+
+    private static final String POOL_NAME = "ohdm-style-generator";
 
     private PGSimpleDataSource dataSource;
+    private HikariDataSource pooledDataSource;
+    private String schema;
 
     public DataSourceWrapper(DataSourceConfig data) {
         dataSource = new PGSimpleDataSource();
@@ -22,21 +33,67 @@ public class DataSourceWrapper {
         dataSource.setUser(data.getUser());
         dataSource.setPassword(data.getPassword());
         dataSource.setCurrentSchema(data.getSchema());
+        schema = data.getSchema();
+
+        if (data.getPoolSize() > 0) {
+            pooledDataSource = new HikariDataSource(createPoolConfig(data));
+        }
+    }
+
+    private HikariConfig createPoolConfig(DataSourceConfig data) {
+        HikariConfig poolConfig = new HikariConfig();
+        poolConfig.setPoolName(POOL_NAME);
+        poolConfig.setDataSource(dataSource);
+        poolConfig.setMaximumPoolSize(data.getPoolSize());
+        poolConfig.setMinimumIdle(1);
+        poolConfig.setIdleTimeout(TimeUnit.SECONDS.toMillis(data.getPoolIdleTimeout()));
+        poolConfig.setSchema(data.getSchema());
+        if (data.getValidationQuery() != null) {
+            poolConfig.setConnectionTestQuery(data.getValidationQuery());
+        }
+        // like the PGSimpleDataSource, the pool only connects when the first connection is requested
+        poolConfig.setInitializationFailTimeout(-1);
+        return poolConfig;
     }
 
     public String getSchema() {
-        return dataSource.getCurrentSchema();
+        return schema;
     }
 
     public void setSchema(String newSchema) {
-        dataSource.setCurrentSchema(newSchema);
+        schema = newSchema;
+        if (pooledDataSource == null) {
+            dataSource.setCurrentSchema(newSchema);
+        }
     }
 
     public Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
+        if (pooledDataSource == null) {
+            return dataSource.getConnection();
+        }
+
+        Connection connection = pooledDataSource.getConnection();
+        if (schema != null) {
+            connection.setSchema(schema);
+        }
+        return connection;
     }
 
     public DataSource getDataSource() {
-        return dataSource;
+        return pooledDataSource != null ? pooledDataSource : dataSource;
+    }
+
+    public boolean isPooled() {
+        return pooledDataSource != null;
+    }
+
+    /**
+     * Closes all pooled connections, has no effect if pooling is disabled.
+     */
+    @Override
+    public void close() {
+        if (pooledDataSource != null) {
+            pooledDataSource.close();
+        }
     }
 }
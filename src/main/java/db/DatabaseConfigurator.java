@@ -7,8 +7,7 @@ import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.*;
 
 public class DatabaseConfigurator {
 
@@ -24,6 +23,11 @@ public class DatabaseConfigurator {
             "valid_until_offset int8 NULL" +
             ");";
 
+    private static final String EXISTING_TABLES_SQL = "SELECT table_name FROM information_schema.tables WHERE table_schema = ? AND table_type = 'BASE TABLE'";
+
+    // amount of tables that are checked for rows with a single query
+    private static final int ROW_CHECK_CHUNK_SIZE = 500;
+
     private final Logger logger = LogManager.getLogger(DatabaseConfigurator.class);
     private final DataSourceWrapper dataSourceWrapper;
 
@@ -32,25 +36,125 @@ public class DatabaseConfigurator {
     }
 
     public void createTablesForClassification(@NotNull Classification classification) throws SQLException {
+        createTablesForClassification(classification, false);
+    }
+
+    /**
+     * Creates a table for every extended class name of the classification that does not exist yet.
+     *
+     * @param batched If true, all tables are created with a single batch inside one transaction, so either all or none
+     *                of the missing tables are created
+     */
+    public void createTablesForClassification(@NotNull Classification classification, boolean batched) throws SQLException {
         Collection<ClassificationClass> classes = classification.getClasses();
 
         String selectedSchema = dataSourceWrapper.getSchema();
         // IMPORTANT: set schema to public to get access to PostGIS extension
         dataSourceWrapper.setSchema("public");
 
-        try (Connection connection = dataSourceWrapper.getConnection();
-             Statement statement = connection.createStatement()) {
+        try (Connection connection = dataSourceWrapper.getConnection()) {
+            if (batched) {
+                createMissingTablesInBatch(connection, classes, selectedSchema);
+            } else {
+                try (Statement statement = connection.createStatement()) {
+                    Collection<String> existingTableNames = getExistingTableNames(connection, selectedSchema);
+                    for (ClassificationClass classificationClass : classes) {
+                        for (String extendedClassName : classificationClass.getExtendedClassNames()) {
+                            createSingleTableForClass(statement, existingTableNames, extendedClassName, selectedSchema);
+                        }
+                    }
+                }
+            }
+            logger.info("Setup of tables matching classification done.");
+        } finally {
+            // the wrapper may be shared with other consumers that expect the selected schema
+            dataSourceWrapper.setSchema(selectedSchema);
+        }
+    }
+
+    /**
+     * Checks which tables of the schema of the data source contain at least one row. The tables are checked in chunks
+     * with one query per chunk.
+     *
+     * @return the names of the tables that are not empty
+     */
+    public Set<String> getTablesWithRows() throws SQLException {
+        String schema = dataSourceWrapper.getSchema();
+        Set<String> tablesWithRows = new HashSet<>();
+
+        try (Connection connection = dataSourceWrapper.getConnection()) {
+            List<String> tableNames = new ArrayList<>(queryExistingTableNames(connection, schema));
+            for (int start = 0; start < tableNames.size(); start += ROW_CHECK_CHUNK_SIZE) {
+                List<String> chunk = tableNames.subList(start, Math.min(start + ROW_CHECK_CHUNK_SIZE, tableNames.size()));
+
+                StringJoiner query = new StringJoiner(" UNION ALL ");
+                chunk.forEach(tableName -> query.add("SELECT CAST(? AS varchar) WHERE EXISTS (SELECT 1 FROM " + quoteIdentifier(schema) + "." + quoteIdentifier(tableName) + ")"));
+                try (PreparedStatement statement = connection.prepareStatement(query.toString())) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        statement.setString(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            tablesWithRows.add(resultSet.getString(1));
+                        }
+                    }
+                }
+            }
+            logger.info("{} of {} tables in schema {} contain rows.", tablesWithRows.size(), tableNames.size(), schema);
+        }
+        return tablesWithRows;
+    }
+
+    private static String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private void createMissingTablesInBatch(Connection connection, Collection<ClassificationClass> classes, String schema) throws SQLException {
+        Set<String> existingTableNames = queryExistingTableNames(connection, schema);
 
-            Collection<String> existingTableNames = getExistingTableNames(connection, selectedSchema);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            int missingTables = 0;
             for (ClassificationClass classificationClass : classes) {
                 for (String extendedClassName : classificationClass.getExtendedClassNames()) {
-                    createSingleTableForClass(statement, existingTableNames, extendedClassName, selectedSchema);
+                    // existingTableNames also prevents duplicate statements for class names that occur twice
+                    if (existingTableNames.add(extendedClassName)) {
+                        statement.addBatch(replacePlaceholdersInSQLString(universalSQL, extendedClassName, schema));
+                        missingTables++;
+                    }
                 }
             }
-            logger.info("Setup of tables matching classification done.");
+
+            if (missingTables > 0) {
+                statement.executeBatch();
+            }
+            connection.commit();
+            logger.info("Created {} tables in schema {}", missingTables, schema);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
         }
     }
 
+    /**
+     * Retrieves the names of all tables in the schema with a single query.
+     */
+    private Set<String> queryExistingTableNames(Connection connection, String schema) throws SQLException {
+        Set<String> tableNames = new HashSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(EXISTING_TABLES_SQL)) {
+            statement.setString(1, schema);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    tableNames.add(resultSet.getString(1));
+                }
+            }
+        }
+        return tableNames;
+    }
+
     private Collection<String> getExistingTableNames(Connection connection, String schema) throws SQLException {
         DatabaseMetaData meta = connection.getMetaData();
         ResultSet resultSet = meta.getTables(null, schema, null, new String[]{"TABLE"});
@@ -0,0 +1,154 @@
+package generation.incremental;
+
+import generation.parser.ConfigParseResult;
+import generation.processing.MapFeatureGeometrySplitter;
+import model.classification.Classification;
+import model.classification.ClassificationClass;
+import model.styling.MapFeature;
+import model.styling.MapFeatureReference;
+import model.styling.PlaceholderRule;
+import model.styling.StyleGroup;
+import org.geotools.styling.Rule;
+import util.HashHelper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Computes a hash for every MapFeature that covers everything its SLDs depend on: its own declaration,
+ * the declarations of the MapFeatures it references via sameAs, the declarations of all StyleGroups it uses
+ * (including the ones used by those StyleGroups) and its entry in the classification.
+ * <p>
+ * The hashes have to be computed before the parse result is processed because the processing replaces the
+ * placeholders that point to the StyleGroups.
+ */
+public class DependencyHasher {
+
+    // has to be changed whenever the generated output changes for the same input
+    private static final String FORMAT_VERSION = "1";
+    private static final String DEFAULTS_SOURCE = "generated defaults";
+    private static final List<String> GEOMETRY_SUFFIXES = Arrays.asList(
+            MapFeatureGeometrySplitter.POINTS_SUFFIX, MapFeatureGeometrySplitter.LINES_SUFFIX, MapFeatureGeometrySplitter.POLYGONS_SUFFIX);
+
+    private final ConfigParseResult configParseResult;
+    private final Classification classification;
+
+    private final Map<String, MapFeature> mapFeaturesByName = new HashMap<>();
+    private final Map<String, StyleGroup> styleGroupsByName = new HashMap<>();
+
+    private DependencyHasher(ConfigParseResult configParseResult, Classification classification) {
+        this.configParseResult = configParseResult;
+        this.classification = classification;
+
+        configParseResult.getMapFeatures().forEach(mapFeature -> mapFeaturesByName.put(mapFeature.getName().toLowerCase(), mapFeature));
+        configParseResult.getStyleGroups().forEach(styleGroup -> styleGroupsByName.put(styleGroup.getName(), styleGroup));
+    }
+
+    /**
+     * @param generateDefaults If true, hashes are also computed for the classes of the classification that are not declared
+     * @return the dependency hash for the name of every MapFeature that will be generated
+     */
+    public static Map<String, String> computeHashes(ConfigParseResult configParseResult, Classification classification, boolean generateDefaults) {
+        DependencyHasher dependencyHasher = new DependencyHasher(configParseResult, classification);
+        Map<String, String> hashes = new LinkedHashMap<>();
+
+        for (MapFeature mapFeature : configParseResult.getMapFeatures()) {
+            hashes.put(mapFeature.getName(), dependencyHasher.hashOf(mapFeature));
+        }
+        if (generateDefaults) {
+            for (ClassificationClass classificationClass : classification.getClasses()) {
+                if (!hashes.containsKey(classificationClass.getClassName())) {
+                    hashes.put(classificationClass.getClassName(), dependencyHasher.hashOfDefaults(classificationClass.getClassName()));
+                }
+            }
+        }
+
+        return hashes;
+    }
+
+    /**
+     * Adds to the hash of every MapFeature whether the tables of its geometry types (e.g. aeroway_points) contain rows,
+     * because geometry types without data are not generated if they are pruned.
+     *
+     * @param tablesWithRows The names of the tables that contain rows
+     * @return the updated hash for the name of every MapFeature
+     */
+    public static Map<String, String> addTableContents(Map<String, String> hashes, Set<String> tablesWithRows) {
+        Set<String> lowerCaseTableNames = new HashSet<>();
+        tablesWithRows.forEach(tableName -> lowerCaseTableNames.add(tableName.toLowerCase(Locale.ROOT)));
+
+        Map<String, String> updatedHashes = new LinkedHashMap<>();
+        hashes.forEach((mapFeatureName, hash) -> {
+            StringBuilder dependencies = new StringBuilder(hash).append('\n');
+            for (String suffix : GEOMETRY_SUFFIXES) {
+                String tableName = (mapFeatureName + suffix).toLowerCase(Locale.ROOT);
+                dependencies.append("table:").append(tableName).append('=').append(lowerCaseTableNames.contains(tableName)).append('\n');
+            }
+            updatedHashes.put(mapFeatureName, sha256(dependencies.toString()));
+        });
+        return updatedHashes;
+    }
+
+    private String hashOf(MapFeature mapFeature) {
+        StringBuilder dependencies = new StringBuilder();
+        appendDependencies(mapFeature, dependencies, new HashSet<>());
+        appendClassificationEntry(mapFeature.getName(), dependencies);
+        return sha256(dependencies.toString());
+    }
+
+    private String hashOfDefaults(String className) {
+        StringBuilder dependencies = new StringBuilder(DEFAULTS_SOURCE);
+        appendClassificationEntry(className, dependencies);
+        return sha256(dependencies.toString());
+    }
+
+    private void appendDependencies(MapFeature mapFeature, StringBuilder dependencies, Set<String> visitedMapFeatures) {
+        if (!visitedMapFeatures.add(mapFeature.getName().toLowerCase())) {
+            // cyclic references are reported by the MapFeatureReferenceResolver
+            return;
+        }
+
+        dependencies.append("mapfeature:").append(configParseResult.getMapFeatureSource(mapFeature.getName())).append('\n');
+
+        if (mapFeature instanceof MapFeatureReference) {
+            String nameOfReferencedMapFeature = ((MapFeatureReference) mapFeature).getNameOfReferencedMapFeature();
+            MapFeature referencedMapFeature = mapFeaturesByName.get(nameOfReferencedMapFeature.toLowerCase());
+            if (referencedMapFeature != null) {
+                appendDependencies(referencedMapFeature, dependencies, visitedMapFeatures);
+            }
+            return;
+        }
+
+        Set<String> styleGroupNames = new TreeSet<>();
+        mapFeature.getSubclasses().forEach(subclass -> collectStyleGroupNames(subclass.getRules(), styleGroupNames));
+        for (String styleGroupName : styleGroupNames) {
+            dependencies.append("stylegroup:").append(configParseResult.getStyleGroupSource(styleGroupName)).append('\n');
+        }
+    }
+
+    private void collectStyleGroupNames(Collection<Rule> rules, Set<String> styleGroupNames) {
+        for (Rule rule : rules) {
+            if (rule instanceof PlaceholderRule) {
+                String nameOfOriginal = ((PlaceholderRule) rule).getNameOfOriginal();
+                StyleGroup styleGroup = styleGroupsByName.get(nameOfOriginal);
+                if (styleGroupNames.add(nameOfOriginal) && styleGroup != null) {
+                    collectStyleGroupNames(styleGroup.getRules(), styleGroupNames);
+                }
+            }
+        }
+    }
+
+    private void appendClassificationEntry(String className, StringBuilder dependencies) {
+        ClassificationClass classificationClass = classification.getClass(className);
+        dependencies.append("classification:").append(className);
+        if (classificationClass != null) {
+            dependencies.append(new TreeSet<>(classificationClass.getSubclassNames()));
+            dependencies.append(classificationClass.getExtendedClassNames());
+        }
+        dependencies.append('\n');
+    }
+
+    private static String sha256(String input) {
+        return HashHelper.sha256(FORMAT_VERSION.getBytes(StandardCharsets.UTF_8), input.getBytes(StandardCharsets.UTF_8));
+    }
+}
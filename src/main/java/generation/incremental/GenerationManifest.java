@@ -0,0 +1,99 @@
+package generation.incremental;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Records which files were generated for every MapFeature and the dependency hash they were generated from.
+ * The manifest is stored in the output directory so that a later run can skip MapFeatures that did not change.
+ */
+public class GenerationManifest {
+
+    public static final String FILE_NAME = ".ohdm-manifest.json";
+
+    private static final Logger logger = LogManager.getLogger(GenerationManifest.class);
+
+    // the options that change the generated output, if they differ every MapFeature is outdated
+    private String options = "";
+    private Map<String, Entry> entries = new TreeMap<>();
+
+    private static class Entry {
+        private String hash;
+        private List<String> files;
+
+        private Entry(String hash, List<String> files) {
+            this.hash = hash;
+            this.files = files;
+        }
+    }
+
+    public GenerationManifest(String options) {
+        this.options = options;
+    }
+
+    /**
+     * @return the manifest stored in the directory or an empty manifest if there is none or it cannot be read
+     */
+    public static GenerationManifest loadFrom(File directory) {
+        File manifestFile = Paths.get(directory.getAbsolutePath(), FILE_NAME).toFile();
+        if (!manifestFile.exists()) {
+            logger.info("No manifest found in {}. All MapFeatures will be generated.", directory.getAbsolutePath());
+            return new GenerationManifest("");
+        }
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(manifestFile), StandardCharsets.UTF_8)) {
+            GenerationManifest manifest = new Gson().fromJson(reader, GenerationManifest.class);
+            if (manifest == null || manifest.entries == null) {
+                return new GenerationManifest("");
+            }
+            return manifest;
+        } catch (IOException | JsonParseException e) {
+            logger.warn("Could not read manifest {}. All MapFeatures will be generated. \n\t Cause: {}", manifestFile.getAbsolutePath(), e.getMessage());
+            return new GenerationManifest("");
+        }
+    }
+
+    public void saveTo(File directory) throws IOException {
+        File manifestFile = Paths.get(directory.getAbsolutePath(), FILE_NAME).toFile();
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        Files.write(manifestFile.toPath(), gson.toJson(this).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return true if the MapFeature was generated with the same options and dependency hash and all of its files still exist
+     */
+    public boolean isUpToDate(String mapFeatureName, String hash, String options, File directory) {
+        Entry entry = entries.get(mapFeatureName);
+        if (entry == null || !this.options.equals(options) || !entry.hash.equals(hash)) {
+            return false;
+        }
+        return entry.files.stream().allMatch(fileName -> Paths.get(directory.getAbsolutePath(), fileName).toFile().exists());
+    }
+
+    public void putEntry(String mapFeatureName, String hash, Collection<String> fileNames) {
+        List<String> sortedFileNames = new ArrayList<>(fileNames);
+        Collections.sort(sortedFileNames);
+        entries.put(mapFeatureName, new Entry(hash, sortedFileNames));
+    }
+
+    public Collection<String> getFileNames(String mapFeatureName) {
+        Entry entry = entries.get(mapFeatureName);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+        return entry.files;
+    }
+
+    public String getOptions() {
+        return options;
+    }
+}
@@ -4,6 +4,8 @@ import model.styling.MapFeature;
 import model.styling.StyleGroup;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class ConfigParseResult {
@@ -11,9 +13,20 @@ public class ConfigParseResult {
     private Collection<MapFeature> mapFeatures;
     private Collection<StyleGroup> styleGroups;
 
+    // the declarations as they were written in the config, keyed by the name of the MapFeature or StyleGroup
+    private Map<String, String> mapFeatureSources;
+    private Map<String, String> styleGroupSources;
+
     public ConfigParseResult(Collection<MapFeature> mapFeatures, Collection<StyleGroup> styleGroups) {
+        this(mapFeatures, styleGroups, new HashMap<>(), new HashMap<>());
+    }
+
+    public ConfigParseResult(Collection<MapFeature> mapFeatures, Collection<StyleGroup> styleGroups,
+                             Map<String, String> mapFeatureSources, Map<String, String> styleGroupSources) {
         this.mapFeatures = mapFeatures;
         this.styleGroups = styleGroups;
+        this.mapFeatureSources = mapFeatureSources;
+        this.styleGroupSources = styleGroupSources;
     }
 
     public boolean addMapFeature(MapFeature mapFeature) {
@@ -32,6 +45,14 @@ public class ConfigParseResult {
         return styleGroups;
     }
 
+    public String getMapFeatureSource(String mapFeatureName) {
+        return mapFeatureSources.get(mapFeatureName);
+    }
+
+    public String getStyleGroupSource(String styleGroupName) {
+        return styleGroupSources.get(styleGroupName);
+    }
+
     @Override
     public String toString() {
         return "ConfigParseResult{" +
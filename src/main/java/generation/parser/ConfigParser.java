@@ -2,6 +2,8 @@ package generation.parser;
 
 import model.styling.*;
 import model.styling.zoom.ZoomRegion;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.geotools.filter.text.cql2.CQLException;
 import org.geotools.filter.text.ecql.ECQL;
 import org.geotools.styling.css.CssParser;
@@ -12,6 +14,7 @@ import org.opengis.style.Style;
 import org.parboiled.*;
 import org.parboiled.annotations.BuildParseTree;
 import org.parboiled.annotations.SuppressNode;
+import org.parboiled.annotations.SuppressSubnodes;
 import org.parboiled.parserunners.ParseRunner;
 import org.parboiled.parserunners.ReportingParseRunner;
 import org.parboiled.support.ParsingResult;
@@ -25,34 +28,82 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @SuppressWarnings({"WeakerAccess", "Convert2Lambda"})
 @BuildParseTree
 public class ConfigParser extends BaseParser<Object> {
 
+    private static final Logger logger = LogManager.getLogger(ConfigParser.class);
+
+    final CssTranslationCache cssTranslationCache = new CssTranslationCache();
+
+    // source texts of the declarations of the current run, used to detect changes between runs
+    final Map<String, String> mapFeatureSources = new HashMap<>();
+    final Map<String, String> styleGroupSources = new HashMap<>();
+
+    /**
+     * If set, detailed style declarations are only matched by balancing their braces and the CSS itself is parsed
+     * exactly once by the GeoTools CssParser instead of being validated by our adapted CSS grammar beforehand.
+     */
+    final Boolean singlePassCss;
+
     protected ConfigParser() {
+        this(false);
+    }
+
+    protected ConfigParser(Boolean singlePassCss) {
+        this.singlePassCss = singlePassCss;
     }
 
     private static ConfigParser INSTANCE;
+    private static ConfigParser SINGLE_PASS_INSTANCE;
 
     public static ConfigParser getInstance() {
         if (INSTANCE == null) {
-            INSTANCE = Parboiled.createParser(ConfigParser.class);
+            INSTANCE = Parboiled.createParser(ConfigParser.class, false);
         }
 
         return INSTANCE;
     }
 
+    public static ConfigParser getSinglePassInstance() {
+        if (SINGLE_PASS_INSTANCE == null) {
+            SINGLE_PASS_INSTANCE = Parboiled.createParser(ConfigParser.class, true);
+        }
+
+        return SINGLE_PASS_INSTANCE;
+    }
+
     public static ConfigParseResult parse(File file) throws ParseException, IOException {
+        return parse(file, false);
+    }
+
+    public static ConfigParseResult parse(File file, boolean singlePassCss) throws ParseException, IOException {
         String input = FileHelper.getFileContentAsString(file);
-        return parse(input);
+        return parse(input, singlePassCss);
     }
 
     public static ConfigParseResult parse(String input) throws ParseException {
-        ConfigParser parser = getInstance();
+        return parse(input, false);
+    }
+
+    /**
+     * @param input         The content of an ohdmconfig file
+     * @param singlePassCss If true, the CSS of detailed style declarations is not validated by the adapted CSS grammar
+     *                      but only parsed once by GeoTools. Invalid CSS is still reported as a ParseException.
+     */
+    public static ConfigParseResult parse(String input, boolean singlePassCss) throws ParseException {
+        ConfigParser parser = singlePassCss ? getSinglePassInstance() : getInstance();
+        parser.cssTranslationCache.clear();
+        parser.mapFeatureSources.clear();
+        parser.styleGroupSources.clear();
         ParseRunner<ConfigParseResult> runner = new ReportingParseRunner<>(parser.OHDMConfig());
         ParsingResult<ConfigParseResult> result = runner.run(input);
+        logger.info("Translated {} distinct CSS blocks (cache hits: {}, cache misses: {}).",
+                parser.cssTranslationCache.size(), parser.cssTranslationCache.getHits(), parser.cssTranslationCache.getMisses());
         if (result.hasErrors()) {
             throw new ParseException(result.parseErrors);
         }
@@ -70,7 +121,7 @@ public class ConfigParser extends BaseParser<Object> {
                     public boolean run(Context context) {
                         List<StyleGroup> styleGroups = popAll(StyleGroup.class);
                         List<MapFeature> mapFeatures = popAll(MapFeature.class);
-                        push(new ConfigParseResult(mapFeatures, styleGroups));
+                        push(new ConfigParseResult(mapFeatures, styleGroups, new HashMap<>(mapFeatureSources), new HashMap<>(styleGroupSources)));
                         return true;
                     }
 
@@ -92,6 +143,7 @@ public class ConfigParser extends BaseParser<Object> {
                     @Override
                     public boolean run(Context context) {
                         List<MapFeatureSubclass> mapFeatureSubclasses = popAll(MapFeatureSubclass.class);
+                        mapFeatureSources.put(mapFeatureName.get(), getDeclarationSource(context));
                         if (mapFeatureReferenceName.get() != null) {
                             push(new MapFeatureReference(mapFeatureName.get(), mapFeatureReferenceName.get()));
                         } else {
@@ -225,6 +277,7 @@ public class ConfigParser extends BaseParser<Object> {
                     public boolean run(Context context) {
                         Collection<org.geotools.styling.Rule> rules = popAll(org.geotools.styling.Rule.class);
                         String styleGroupName = (String) pop();
+                        styleGroupSources.put(styleGroupName, getDeclarationSource(context));
                         rules.forEach(rule -> rule.setName(styleGroupName));
                         push(new StyleGroup(styleGroupName, rules));
                         return true;
@@ -270,6 +323,13 @@ public class ConfigParser extends BaseParser<Object> {
     }
 
     Rule DetailedStyleDeclaration() {
+        if (singlePassCss) {
+            return SinglePassStyleDeclaration();
+        }
+        return ValidatedStyleDeclaration();
+    }
+
+    Rule ValidatedStyleDeclaration() {
         return Sequence(
                 generation.parser.css.CssParser.getInstance().StyleSheet(),
                 push(match()),
@@ -277,15 +337,86 @@ public class ConfigParser extends BaseParser<Object> {
                     @Override
                     public boolean run(Context context) {
                         String match = (String) pop();
-                        Stylesheet stylesheet = CssParser.parse(match);
-                        CssTranslator cssTranslator = new CssTranslator();
-                        Style style = cssTranslator.translate(stylesheet);
-                        style.featureTypeStyles().forEach((featureTypeStyle) -> featureTypeStyle.rules().forEach((rule) -> push(rule)));
-                        return true;
+                        return translateCss(match);
+                    }
+                });
+    }
+
+    Rule SinglePassStyleDeclaration() {
+        return Sequence(
+                RawCssStyleSheet(),
+                push(match()),
+                new Action() {
+                    @Override
+                    public boolean run(Context context) {
+                        String match = (String) pop();
+                        return translateCss(match);
                     }
                 });
     }
 
+    /**
+     * Translates the given CSS with GeoTools and pushes the resulting rules onto the value stack.
+     * Identical CSS blocks are only parsed and translated once, subsequent occurrences get copies of the cached rules.
+     *
+     * @return false if the CSS could not be parsed so that the surrounding rule fails and the error is reported
+     */
+    boolean translateCss(String css) {
+        List<org.geotools.styling.Rule> rules = cssTranslationCache.get(css);
+        if (rules == null) {
+            Stylesheet stylesheet;
+            try {
+                stylesheet = CssParser.parse(css);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            CssTranslator cssTranslator = new CssTranslator();
+            Style style = cssTranslator.translate(stylesheet);
+
+            List<org.geotools.styling.Rule> translatedRules = new ArrayList<>();
+            style.featureTypeStyles().forEach((featureTypeStyle) -> featureTypeStyle.rules().forEach((rule) -> translatedRules.add((org.geotools.styling.Rule) rule)));
+            rules = cssTranslationCache.put(css, translatedRules);
+        }
+
+        rules.forEach((rule) -> push(rule));
+        return true;
+    }
+
+    /**
+     * Only matches the boundaries of one or more CSS rules (selector followed by a block with balanced braces).
+     * Quoted strings and comments are skipped so that braces inside of them don't end a block.
+     */
+    @SuppressSubnodes
+    Rule RawCssStyleSheet() {
+        return OneOrMore(RawCssRule());
+    }
+
+    Rule RawCssRule() {
+        return Sequence(
+                OptionalWhiteSpace(),
+                OneOrMore(FirstOf(RawCssQuotedString(), RawCssComment(), NoneOf("{}"))),
+                RawCssBlock(),
+                OptionalWhiteSpace()
+        );
+    }
+
+    Rule RawCssBlock() {
+        return Sequence(
+                Ch('{'),
+                ZeroOrMore(FirstOf(RawCssQuotedString(), RawCssComment(), RawCssBlock(), NoneOf("{}"))),
+                Ch('}')
+        );
+    }
+
+    Rule RawCssQuotedString() {
+        return FirstOf(
+                Sequence('\'', ZeroOrMore(NoneOf("'")), '\''),
+                Sequence('"', ZeroOrMore(NoneOf("\"")), '"'));
+    }
+
+    Rule RawCssComment() {
+        return Sequence("/*", ZeroOrMore(TestNot("*/"), ANY), "*/");
+    }
 
     Rule MapFeatureName(Var<String> mapFeatureName) {
         return Sequence(
@@ -389,6 +520,13 @@ public class ConfigParser extends BaseParser<Object> {
                 String(string);
     }
 
+    /**
+     * @return the input text that was matched by the rule the action of the given context belongs to
+     */
+    String getDeclarationSource(Context context) {
+        return context.getInputBuffer().extract(context.getStartIndex(), context.getCurrentIndex()).trim();
+    }
+
     <T> T pop(Class<T> clazz) {
         return (T) pop();
     }
@@ -0,0 +1,102 @@
+package generation.parser;
+
+import org.geotools.styling.Rule;
+import org.geotools.styling.visitor.DuplicatingStyleVisitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the rules that were translated from a CSS block so that identical CSS blocks are only translated once.
+ * The CSS text is normalized before it is used as key, so blocks that only differ in whitespace share an entry.
+ * Every lookup returns deep copies of the cached rules because the parser modifies rules after the translation
+ * (e.g. filters and scale denominators).
+ */
+class CssTranslationCache {
+
+    private final Map<String, List<Rule>> translatedRules = new HashMap<>();
+
+    private int hits = 0;
+    private int misses = 0;
+
+    /**
+     * @return deep copies of the rules that were cached for the given css or null if there are none
+     */
+    List<Rule> get(String css) {
+        List<Rule> rules = translatedRules.get(normalize(css));
+        if (rules == null) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return copyOf(rules);
+    }
+
+    /**
+     * Caches the given rules and returns deep copies of them that can be modified by the caller.
+     */
+    List<Rule> put(String css, List<Rule> rules) {
+        translatedRules.put(normalize(css), Collections.unmodifiableList(new ArrayList<>(rules)));
+        return copyOf(rules);
+    }
+
+    void clear() {
+        translatedRules.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    int getHits() {
+        return hits;
+    }
+
+    int getMisses() {
+        return misses;
+    }
+
+    int size() {
+        return translatedRules.size();
+    }
+
+    private List<Rule> copyOf(List<Rule> rules) {
+        List<Rule> copies = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            DuplicatingStyleVisitor duplicatingStyleVisitor = new DuplicatingStyleVisitor();
+            rule.accept(duplicatingStyleVisitor);
+            copies.add((Rule) duplicatingStyleVisitor.getCopy());
+        }
+        return copies;
+    }
+
+    /**
+     * Collapses every sequence of whitespace outside of quoted strings to a single space and trims the result.
+     */
+    static String normalize(String css) {
+        StringBuilder sb = new StringBuilder(css.length());
+        char quote = 0;
+        boolean pendingWhitespace = false;
+        for (int i = 0; i < css.length(); i++) {
+            char c = css.charAt(i);
+            if (quote == 0 && Character.isWhitespace(c)) {
+                pendingWhitespace = true;
+                continue;
+            }
+            if (pendingWhitespace && sb.length() > 0) {
+                sb.append(' ');
+            }
+            pendingWhitespace = false;
+
+            if (quote == 0 && (c == '\'' || c == '"')) {
+                quote = c;
+            } else if (quote == c) {
+                quote = 0;
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
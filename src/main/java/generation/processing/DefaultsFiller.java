@@ -28,7 +28,7 @@ public class DefaultsFiller {
         Collection<MapFeature> copyOfMapFeatures = new ArrayList<>(mapFeatures);
 
         Collection<String> classNames = classification.getClasses().stream().map(ClassificationClass::getClassName).collect(Collectors.toList());
-        Collection<String> usedClassNames = copyOfMapFeatures.stream().map(MapFeature::getName).collect(Collectors.toList());
+        Collection<String> usedClassNames = copyOfMapFeatures.stream().map(MapFeature::getName).collect(Collectors.toSet());
 
         // this results in a collection with the unused classnames
         classNames.removeAll(usedClassNames);
@@ -0,0 +1,116 @@
+package generation.processing;
+
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.styling.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Merges the FeatureTypeStyles that the {@link MapFeatureTranslator} creates for every MapFeatureSubclass, so that
+ * GeoServer renders a layer in as few passes as possible instead of one pass with its own data query per subclass.
+ * <p>
+ * Consecutive FeatureTypeStyles are merged as long as their FeatureTypeStyle level settings (vendor options such as
+ * sortBy or composite, rendering transformations and feature type names) are equal, because these settings define
+ * the z-order of a pass. The rules keep their order. Since every subclass rule only matches its own subclass, a feature
+ * is still styled by the same rules, only features of different subclasses are no longer painted subclass by subclass.
+ */
+public class FeatureTypeStyleMerger {
+
+    private static StyleFactory styleFactory = CommonFactoryFinder.getStyleFactory();
+
+    private FeatureTypeStyleMerger() {
+    }
+
+    /**
+     * Merges the FeatureTypeStyles of every NamedLayer of the SLDs into a single Style, the SLDs are modified in place.
+     *
+     * @return the passed SLDs
+     */
+    public static Collection<StyledLayerDescriptor> mergeFeatureTypeStyles(Collection<StyledLayerDescriptor> styledLayerDescriptors) {
+        styledLayerDescriptors.forEach(FeatureTypeStyleMerger::mergeFeatureTypeStyles);
+        return styledLayerDescriptors;
+    }
+
+    static void mergeFeatureTypeStyles(StyledLayerDescriptor sld) {
+        for (StyledLayer styledLayer : sld.layers()) {
+            if (!(styledLayer instanceof NamedLayer)) {
+                continue;
+            }
+
+            NamedLayer layer = (NamedLayer) styledLayer;
+            List<FeatureTypeStyle> featureTypeStyles = layer.styles().stream()
+                    .flatMap(style -> style.featureTypeStyles().stream())
+                    .collect(Collectors.toList());
+            if (layer.styles().size() <= 1 && featureTypeStyles.size() <= 1) {
+                continue;
+            }
+
+            Style mergedStyle = styleFactory.createStyle();
+            mergedStyle.setName(sld.getName());
+            mergedStyle.setDefault(true);
+            mergedStyle.featureTypeStyles().addAll(mergeConsecutive(featureTypeStyles, sld.getName()));
+
+            layer.styles().clear();
+            layer.addStyle(mergedStyle);
+        }
+    }
+
+    /**
+     * @return the amount of FeatureTypeStyles in all SLDs, which is the amount of rendering passes
+     */
+    public static int countFeatureTypeStyles(Collection<StyledLayerDescriptor> styledLayerDescriptors) {
+        return styledLayerDescriptors.stream()
+                .flatMap(sld -> sld.layers().stream())
+                .filter(styledLayer -> styledLayer instanceof NamedLayer)
+                .flatMap(styledLayer -> ((NamedLayer) styledLayer).styles().stream())
+                .mapToInt(style -> style.featureTypeStyles().size())
+                .sum();
+    }
+
+    private static List<FeatureTypeStyle> mergeConsecutive(List<FeatureTypeStyle> featureTypeStyles, String name) {
+        List<FeatureTypeStyle> mergedFeatureTypeStyles = new ArrayList<>();
+        FeatureTypeStyle current = null;
+        int mergedCount = 0;
+        for (FeatureTypeStyle featureTypeStyle : featureTypeStyles) {
+            if (current != null && canBeMerged(current, featureTypeStyle)) {
+                current.rules().addAll(featureTypeStyle.rules());
+                current.setName(name);
+                mergedCount++;
+                continue;
+            }
+            current = copySettingsOf(featureTypeStyle);
+            current.rules().addAll(featureTypeStyle.rules());
+            mergedFeatureTypeStyles.add(current);
+        }
+
+        // names have to be unique inside a Style
+        if (mergedFeatureTypeStyles.size() > 1 && mergedCount > 0) {
+            for (int i = 0; i < mergedFeatureTypeStyles.size(); i++) {
+                mergedFeatureTypeStyles.get(i).setName(name + "_" + i);
+            }
+        }
+        return mergedFeatureTypeStyles;
+    }
+
+    private static boolean canBeMerged(FeatureTypeStyle first, FeatureTypeStyle second) {
+        return Objects.equals(first.getOptions(), second.getOptions())
+                && Objects.equals(first.getTransformation(), second.getTransformation())
+                && Objects.equals(first.featureTypeNames(), second.featureTypeNames())
+                && Objects.equals(first.semanticTypeIdentifiers(), second.semanticTypeIdentifiers());
+    }
+
+    private static FeatureTypeStyle copySettingsOf(FeatureTypeStyle featureTypeStyle) {
+        FeatureTypeStyle copy = styleFactory.createFeatureTypeStyle();
+        copy.setName(featureTypeStyle.getName());
+        copy.getOptions().putAll(featureTypeStyle.getOptions());
+        copy.setTransformation(featureTypeStyle.getTransformation());
+        copy.featureTypeNames().addAll(featureTypeStyle.featureTypeNames());
+        copy.semanticTypeIdentifiers().addAll(featureTypeStyle.semanticTypeIdentifiers());
+        copy.setOnlineResource(featureTypeStyle.getOnlineResource());
+        return copy;
+    }
+}
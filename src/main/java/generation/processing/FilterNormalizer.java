@@ -0,0 +1,336 @@
+package generation.processing;
+
+import model.styling.MapFeature;
+import model.styling.MapFeatureSubclass;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.styling.Rule;
+import org.geotools.styling.RuleImpl;
+import org.jetbrains.annotations.Nullable;
+import org.opengis.filter.*;
+import org.opengis.filter.expression.Expression;
+import org.opengis.filter.expression.Literal;
+import org.opengis.filter.expression.PropertyName;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Simplifies the filters of rules before they are translated. Combining placeholder and subclass filters nests And
+ * filters and repeats conjuncts, which makes the evaluation of every feature and the SQL of GeoServer more expensive.
+ * <p>
+ * The normalization flattens nested And and Or filters, removes duplicated children, INCLUDE and EXCLUDE leftovers,
+ * double negations and comparisons of two literals. An And whose children compare the same attribute to different
+ * values, or to the same literal with {@code =} and {@code <>}, can never match, rules with such a filter are removed.
+ */
+public class FilterNormalizer {
+
+    private static final Logger logger = LogManager.getLogger(FilterNormalizer.class);
+    private static final FilterFactory2 filterFactory = CommonFactoryFinder.getFilterFactory2();
+
+    private int removedPredicates = 0;
+    private int removedRules = 0;
+
+    /**
+     * Normalizes the filters of all rules, rules that never match and subclasses without remaining rules are removed.
+     *
+     * @return copies of the MapFeatures, the passed MapFeatures are not modified
+     */
+    public Collection<MapFeature> normalizeFilters(Collection<MapFeature> mapFeatures) {
+        List<MapFeature> normalizedMapFeatures = new ArrayList<>(mapFeatures.size());
+        for (MapFeature mapFeature : mapFeatures) {
+            List<MapFeatureSubclass> normalizedSubclasses = new ArrayList<>();
+            for (MapFeatureSubclass subclass : mapFeature.getSubclasses()) {
+                List<Rule> normalizedRules = normalizeRules(subclass.getRules());
+                if (!normalizedRules.isEmpty() || subclass.getRules().isEmpty()) {
+                    normalizedSubclasses.add(new MapFeatureSubclass(subclass.getSubclassName(), normalizedRules));
+                } else {
+                    logger.warn("All rules of subclass {} of MapFeature {} can never match. Removing the subclass.", subclass.getSubclassName(), mapFeature.getName());
+                }
+            }
+            normalizedMapFeatures.add(new MapFeature(mapFeature.getName(), normalizedSubclasses));
+        }
+        return normalizedMapFeatures;
+    }
+
+    private List<Rule> normalizeRules(Collection<Rule> rules) {
+        List<Rule> normalizedRules = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            if (rule.getFilter() == null || rule.isElseFilter()) {
+                normalizedRules.add(rule);
+                continue;
+            }
+
+            Filter normalizedFilter = normalize(rule.getFilter());
+            removedPredicates += countPredicates(rule.getFilter()) - countPredicates(normalizedFilter);
+            if (normalizedFilter == Filter.EXCLUDE) {
+                logger.debug("Removing rule {} because its filter {} can never match.", rule.getName(), rule.getFilter());
+                removedRules++;
+                continue;
+            }
+
+            if (normalizedFilter.equals(rule.getFilter())) {
+                normalizedRules.add(rule);
+            } else {
+                Rule normalizedRule = new RuleImpl(rule);
+                normalizedRule.setFilter(normalizedFilter);
+                normalizedRules.add(normalizedRule);
+            }
+        }
+        return normalizedRules;
+    }
+
+    /**
+     * @return the amount of predicates that were removed from filters, including the predicates of removed rules
+     */
+    public int getRemovedPredicates() {
+        return removedPredicates;
+    }
+
+    /**
+     * @return the amount of rules that were removed because their filter can never match
+     */
+    public int getRemovedRules() {
+        return removedRules;
+    }
+
+    /**
+     * @return an equivalent filter, Filter.INCLUDE if it always matches and Filter.EXCLUDE if it never matches
+     */
+    public static Filter normalize(Filter filter) {
+        if (filter instanceof IncludeFilter) {
+            return Filter.INCLUDE;
+        }
+        if (filter instanceof ExcludeFilter) {
+            return Filter.EXCLUDE;
+        }
+        if (filter instanceof And) {
+            return normalizeAnd((And) filter);
+        }
+        if (filter instanceof Or) {
+            return normalizeOr((Or) filter);
+        }
+        if (filter instanceof Not) {
+            Filter child = normalize(((Not) filter).getFilter());
+            if (child == Filter.INCLUDE) {
+                return Filter.EXCLUDE;
+            }
+            if (child == Filter.EXCLUDE) {
+                return Filter.INCLUDE;
+            }
+            return child instanceof Not ? ((Not) child).getFilter() : filterFactory.not(child);
+        }
+        if (filter instanceof BinaryComparisonOperator) {
+            BinaryComparisonOperator comparison = (BinaryComparisonOperator) filter;
+            if (comparison.getExpression1() instanceof Literal && comparison.getExpression2() instanceof Literal) {
+                return comparison.evaluate(null) ? Filter.INCLUDE : Filter.EXCLUDE;
+            }
+        }
+        return filter;
+    }
+
+    private static Filter normalizeAnd(And and) {
+        Set<Filter> children = new LinkedHashSet<>();
+        for (Filter child : flatten(and.getChildren(), And.class)) {
+            Filter normalizedChild = normalize(child);
+            if (normalizedChild == Filter.EXCLUDE) {
+                return Filter.EXCLUDE;
+            }
+            if (normalizedChild instanceof And) {
+                children.addAll(((And) normalizedChild).getChildren());
+            } else if (normalizedChild != Filter.INCLUDE) {
+                children.add(normalizedChild);
+            }
+        }
+
+        if (isContradiction(children)) {
+            return Filter.EXCLUDE;
+        }
+        if (children.isEmpty()) {
+            return Filter.INCLUDE;
+        }
+        return children.size() == 1 ? children.iterator().next() : filterFactory.and(new ArrayList<>(children));
+    }
+
+    private static Filter normalizeOr(Or or) {
+        Set<Filter> children = new LinkedHashSet<>();
+        for (Filter child : flatten(or.getChildren(), Or.class)) {
+            Filter normalizedChild = normalize(child);
+            if (normalizedChild == Filter.INCLUDE) {
+                return Filter.INCLUDE;
+            }
+            if (normalizedChild instanceof Or) {
+                children.addAll(((Or) normalizedChild).getChildren());
+            } else if (normalizedChild != Filter.EXCLUDE) {
+                children.add(normalizedChild);
+            }
+        }
+
+        if (children.isEmpty()) {
+            return Filter.EXCLUDE;
+        }
+        return children.size() == 1 ? children.iterator().next() : filterFactory.or(new ArrayList<>(children));
+    }
+
+    private static List<Filter> flatten(List<Filter> children, Class<? extends BinaryLogicOperator> type) {
+        List<Filter> flattenedChildren = new ArrayList<>();
+        for (Filter child : children) {
+            if (type.isInstance(child)) {
+                flattenedChildren.addAll(flatten(((BinaryLogicOperator) child).getChildren(), type));
+            } else {
+                flattenedChildren.add(child);
+            }
+        }
+        return flattenedChildren;
+    }
+
+    /**
+     * Detects conjuncts that exclude each other: a filter and its negation, an attribute that is equal to two different
+     * values, or an attribute that is equal and not equal to the same value. An Or of equalities counts as IN.
+     */
+    private static boolean isContradiction(Set<Filter> conjuncts) {
+        // canonical value -> literal values for every property
+        Map<String, Map<Object, Set<Object>>> allowedValues = new HashMap<>();
+        Map<String, Set<Object>> excludedValues = new HashMap<>();
+        for (Filter conjunct : conjuncts) {
+            if (conjunct instanceof Not && conjuncts.contains(((Not) conjunct).getFilter())) {
+                return true;
+            }
+
+            PropertyValue equality = PropertyValue.of(conjunct, PropertyIsEqualTo.class);
+            if (equality != null) {
+                if (restrict(allowedValues, equality.property, Collections.singletonList(equality))) {
+                    return true;
+                }
+                continue;
+            }
+
+            PropertyValue inequality = PropertyValue.of(conjunct, PropertyIsNotEqualTo.class);
+            if (inequality != null) {
+                excludedValues.computeIfAbsent(inequality.property, property -> new HashSet<>()).add(inequality.literalValue);
+                continue;
+            }
+
+            if (conjunct instanceof Or) {
+                String property = null;
+                List<PropertyValue> values = new ArrayList<>();
+                for (Filter child : ((Or) conjunct).getChildren()) {
+                    PropertyValue childEquality = PropertyValue.of(child, PropertyIsEqualTo.class);
+                    if (childEquality == null || (property != null && !property.equals(childEquality.property))) {
+                        property = null;
+                        break;
+                    }
+                    property = childEquality.property;
+                    values.add(childEquality);
+                }
+                if (property != null && restrict(allowedValues, property, values)) {
+                    return true;
+                }
+            }
+        }
+
+        // only literals of the same value and type are known to be equal when compared to the attribute
+        for (Map.Entry<String, Set<Object>> excluded : excludedValues.entrySet()) {
+            Map<Object, Set<Object>> allowed = allowedValues.get(excluded.getKey());
+            if (allowed != null && allowed.values().stream().allMatch(excluded.getValue()::containsAll)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Intersects the allowed values of the property with the values of the passed equalities by their canonical value.
+     *
+     * @return true if no value is allowed anymore
+     */
+    private static boolean restrict(Map<String, Map<Object, Set<Object>>> allowedValues, String property, List<PropertyValue> equalities) {
+        Map<Object, Set<Object>> values = new HashMap<>();
+        for (PropertyValue equality : equalities) {
+            values.computeIfAbsent(equality.value, value -> new HashSet<>()).add(equality.literalValue);
+        }
+
+        Map<Object, Set<Object>> allowed = allowedValues.get(property);
+        if (allowed == null) {
+            allowedValues.put(property, values);
+            return false;
+        }
+        allowed.keySet().retainAll(values.keySet());
+        allowed.forEach((value, literalValues) -> literalValues.addAll(values.get(value)));
+        return allowed.isEmpty();
+    }
+
+    /**
+     * @return the amount of comparisons in the filter, INCLUDE and EXCLUDE count as predicates unless they are the whole filter
+     */
+    static int countPredicates(Filter filter) {
+        if (filter instanceof IncludeFilter || filter instanceof ExcludeFilter) {
+            return 0;
+        }
+        return countNestedPredicates(filter);
+    }
+
+    private static int countNestedPredicates(Filter filter) {
+        if (filter instanceof BinaryLogicOperator) {
+            return ((BinaryLogicOperator) filter).getChildren().stream().mapToInt(FilterNormalizer::countNestedPredicates).sum();
+        }
+        if (filter instanceof Not) {
+            return countNestedPredicates(((Not) filter).getFilter());
+        }
+        return 1;
+    }
+
+    /**
+     * A comparison between an attribute and a literal value.
+     */
+    private static class PropertyValue {
+        private final String property;
+        private final Object value;
+        private final Object literalValue;
+
+        private PropertyValue(String property, Literal literal) {
+            this.property = property;
+            this.value = canonicalValueOf(literal);
+            this.literalValue = literal.getValue();
+        }
+
+        /**
+         * @return null if the filter is not of the passed type or does not compare an attribute to a literal
+         */
+        @Nullable
+        private static PropertyValue of(Filter filter, Class<? extends BinaryComparisonOperator> type) {
+            if (!type.isInstance(filter) || !((BinaryComparisonOperator) filter).isMatchingCase()) {
+                return null;
+            }
+            Expression first = ((BinaryComparisonOperator) filter).getExpression1();
+            Expression second = ((BinaryComparisonOperator) filter).getExpression2();
+            if (first instanceof PropertyName && second instanceof Literal) {
+                return new PropertyValue(((PropertyName) first).getPropertyName(), (Literal) second);
+            }
+            if (second instanceof PropertyName && first instanceof Literal) {
+                return new PropertyValue(((PropertyName) second).getPropertyName(), (Literal) first);
+            }
+            return null;
+        }
+
+        /**
+         * Literals are compared as text and numbers by their numeric value, so that 2, 2.0 and '2' are the same value.
+         * This is only used to decide that two equalities can match the same feature. Whether an inequality excludes a
+         * value depends on the type of the attribute, so it is decided by the exact literal value instead.
+         */
+        @Nullable
+        private static Object canonicalValueOf(Literal literal) {
+            Object value = literal.getValue();
+            if (value == null) {
+                return null;
+            }
+            String text = value.toString().trim();
+            try {
+                return new BigDecimal(text).stripTrailingZeros().toPlainString();
+            } catch (NumberFormatException e) {
+                return text;
+            }
+        }
+    }
+}
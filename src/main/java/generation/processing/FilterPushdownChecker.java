@@ -0,0 +1,124 @@
+package generation.processing;
+
+import org.geotools.data.postgis.PostGISDialect;
+import org.geotools.data.postgis.PostgisFilterToSQL;
+import org.geotools.filter.FilterCapabilities;
+import org.geotools.filter.text.ecql.ECQL;
+import org.geotools.filter.visitor.PostPreProcessFilterSplittingVisitor;
+import org.geotools.styling.*;
+import org.opengis.filter.Filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Checks which rule filters the PostGIS store of GeoServer can translate to SQL.
+ * <p>
+ * The store splits every filter with the capabilities of its FilterToSQL into a part that is sent to the database and
+ * a part that is evaluated in memory. GeoServer combines the filters of all rules of a layer, so a single rule with a
+ * filter that can't be encoded makes every tile fetch all rows of the table.
+ */
+public class FilterPushdownChecker {
+
+    private final FilterCapabilities capabilities;
+    private int checkedRules = 0;
+
+    /**
+     * @param encodeFunctions Whether the PostGIS store is configured to encode functions, which is disabled by default
+     */
+    public FilterPushdownChecker(boolean encodeFunctions) {
+        PostgisFilterToSQL filterToSQL = new PostgisFilterToSQL(new PostGISDialect(null));
+        filterToSQL.setFunctionEncodingEnabled(encodeFunctions);
+        capabilities = filterToSQL.getCapabilities();
+    }
+
+    /**
+     * @return every rule of the SLDs whose filter is not completely pushed down to the database
+     */
+    public List<UnpushableFilter> check(Collection<StyledLayerDescriptor> styledLayerDescriptors) {
+        List<UnpushableFilter> unpushableFilters = new ArrayList<>();
+        for (StyledLayerDescriptor sld : styledLayerDescriptors) {
+            int ruleIndex = 0;
+            for (StyledLayer styledLayer : sld.layers()) {
+                if (!(styledLayer instanceof NamedLayer)) {
+                    continue;
+                }
+                for (Style style : ((NamedLayer) styledLayer).styles()) {
+                    for (FeatureTypeStyle featureTypeStyle : style.featureTypeStyles()) {
+                        for (Rule rule : featureTypeStyle.rules()) {
+                            Filter postFilter = getPostFilter(rule.getFilter());
+                            if (postFilter != Filter.INCLUDE) {
+                                unpushableFilters.add(new UnpushableFilter(sld.getName(), ruleIndex, rule, postFilter));
+                            }
+                            checkedRules++;
+                            ruleIndex++;
+                        }
+                    }
+                }
+            }
+        }
+        return unpushableFilters;
+    }
+
+    /**
+     * @return the part of the filter that is evaluated in memory, Filter.INCLUDE if the whole filter is encoded as SQL
+     */
+    Filter getPostFilter(Filter filter) {
+        if (filter == null) {
+            return Filter.INCLUDE;
+        }
+        PostPreProcessFilterSplittingVisitor splitter = new PostPreProcessFilterSplittingVisitor(capabilities, null, null);
+        filter.accept(splitter, null);
+        return splitter.getFilterPost();
+    }
+
+    public int getCheckedRules() {
+        return checkedRules;
+    }
+
+    /**
+     * A rule whose filter is at least partially evaluated in memory.
+     */
+    public static class UnpushableFilter {
+        private final String sldName;
+        private final int ruleIndex;
+        private final Rule rule;
+        private final Filter postFilter;
+
+        UnpushableFilter(String sldName, int ruleIndex, Rule rule, Filter postFilter) {
+            this.sldName = sldName;
+            this.ruleIndex = ruleIndex;
+            this.rule = rule;
+            this.postFilter = postFilter;
+        }
+
+        public String getSldName() {
+            return sldName;
+        }
+
+        /**
+         * @return the position of the rule inside of the SLD
+         */
+        public int getRuleIndex() {
+            return ruleIndex;
+        }
+
+        public Rule getRule() {
+            return rule;
+        }
+
+        /**
+         * @return the predicates that are not pushed down to the database
+         */
+        public Filter getPostFilter() {
+            return postFilter;
+        }
+
+        @Override
+        public String toString() {
+            String ruleName = rule.getName() != null ? " (" + rule.getName() + ")" : "";
+            return sldName + " rule " + ruleIndex + ruleName + ": " + ECQL.toCQL(postFilter);
+        }
+    }
+}
@@ -1,68 +1,123 @@
 package generation.processing;
 
 import model.styling.MapFeature;
+import model.styling.MapFeatureSubclass;
 import org.geotools.styling.*;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class MapFeatureGeometrySplitter {
 
+    public static final String POINTS_SUFFIX = "_points";
+    public static final String LINES_SUFFIX = "_lines";
+    public static final String POLYGONS_SUFFIX = "_polygons";
+
     private MapFeatureGeometrySplitter() {
     }
 
+    /**
+     * Splits every MapFeature into one MapFeature per geometry type. The symbolizers of every rule are visited once and
+     * sorted into the geometry types, TextSymbolizers are added to every geometry type the rule has symbolizers for.
+     * Only rules that have symbolizers for a geometry type are copied into the MapFeature of that type.
+     */
     public static Collection<MapFeature> splitMapFeaturesIntoGeometryTypes(Collection<MapFeature> mapFeatures) {
         Collection<MapFeature> splitMapFeatures = new ArrayList<>();
 
         mapFeatures.forEach(mapFeature -> {
-            MapFeature pointMapFeature = createMapFeatureFrom(mapFeature, PointSymbolizerImpl.class);
-            pointMapFeature.setName(mapFeature.getName() + "_points");
-            MapFeature polygonMapFeature = createMapFeatureFrom(mapFeature, PolygonSymbolizerImpl.class);
-            polygonMapFeature.setName(mapFeature.getName() + "_polygons");
-            MapFeature lineMapFeature = createMapFeatureFrom(mapFeature, LineSymbolizerImpl.class);
-            lineMapFeature.setName(mapFeature.getName() + "_lines");
-
-            splitMapFeatures.add(pointMapFeature);
-            splitMapFeatures.add(polygonMapFeature);
-            splitMapFeatures.add(lineMapFeature);
+            List<MapFeatureSubclass> pointSubclasses = new ArrayList<>();
+            List<MapFeatureSubclass> polygonSubclasses = new ArrayList<>();
+            List<MapFeatureSubclass> lineSubclasses = new ArrayList<>();
+
+            mapFeature.getSubclasses().forEach(mapFeatureSubclass -> {
+                Collection<Rule> pointRules = new ArrayList<>();
+                Collection<Rule> polygonRules = new ArrayList<>();
+                Collection<Rule> lineRules = new ArrayList<>();
+                mapFeatureSubclass.getRules().forEach(rule -> splitRule(rule, pointRules, polygonRules, lineRules));
+
+                pointSubclasses.add(new MapFeatureSubclass(mapFeatureSubclass.getSubclassName(), pointRules));
+                polygonSubclasses.add(new MapFeatureSubclass(mapFeatureSubclass.getSubclassName(), polygonRules));
+                lineSubclasses.add(new MapFeatureSubclass(mapFeatureSubclass.getSubclassName(), lineRules));
+            });
+
+            splitMapFeatures.add(new MapFeature(mapFeature.getName() + POINTS_SUFFIX, pointSubclasses));
+            splitMapFeatures.add(new MapFeature(mapFeature.getName() + POLYGONS_SUFFIX, polygonSubclasses));
+            splitMapFeatures.add(new MapFeature(mapFeature.getName() + LINES_SUFFIX, lineSubclasses));
         });
 
         return splitMapFeatures;
     }
 
     /**
-     * This method will create a copy of the given MapFeature and only assign the symbolizers that match the given type
-     * and TextSymbolizers.
+     * Removes the subclasses without rules and the split MapFeatures that have no rules at all, so that no SLDs are
+     * created for geometry types a MapFeature has no symbolizers for.
      *
-     * @param mapFeature The MapFeature that serves as the base
-     * @param type       The type of the Symbolizers that have to be filtered and reassigned
-     * @param <T>        The class of the type.
-     * @return A new MapFeature that only has the rules from the base MapFeature that match the given type.
+     * @param splitMapFeatures MapFeatures returned by {@link #splitMapFeaturesIntoGeometryTypes(Collection)}
      */
-    private static <T> MapFeature createMapFeatureFrom(MapFeature mapFeature, Class<T> type) {
-        MapFeature copyOfMapFeature = new MapFeature(mapFeature);
-
-        copyOfMapFeature.getSubclasses().forEach(mapFeatureSubclass -> {
-            Collection<Rule> rulesForType = new ArrayList<>();
-
-            mapFeatureSubclass.getRules().forEach(rule -> {
-                List<Symbolizer> symbolizersOfType = rule.symbolizers().stream().filter(symbolizer -> type.isAssignableFrom(symbolizer.getClass())).collect(Collectors.toList());
-                List<Symbolizer> textSymbolizers = rule.symbolizers().stream().filter(symbolizer -> symbolizer instanceof TextSymbolizer).collect(Collectors.toList());
-                rule.symbolizers().clear();
-                if (!symbolizersOfType.isEmpty()) {
-                    rule.symbolizers().addAll(symbolizersOfType);
-                    rule.symbolizers().addAll(textSymbolizers);
-                    // if there are symbolizers for the specified type we want to add this rule to the mapfeaturesubclass
-                    rulesForType.add(rule);
-                }
-            });
-
-            // only add the rules that match the type, e.g. only add line rules to subclass with line type
-            mapFeatureSubclass.setRules(rulesForType);
+    public static Collection<MapFeature> removeEmptyGeometryTypes(Collection<MapFeature> splitMapFeatures) {
+        Collection<MapFeature> nonEmptyMapFeatures = new ArrayList<>();
+        splitMapFeatures.forEach(mapFeature -> {
+            List<MapFeatureSubclass> nonEmptySubclasses = new ArrayList<>();
+            mapFeature.getSubclasses().stream()
+                    .filter(mapFeatureSubclass -> !mapFeatureSubclass.getRules().isEmpty())
+                    .forEach(nonEmptySubclasses::add);
+            if (!nonEmptySubclasses.isEmpty()) {
+                nonEmptyMapFeatures.add(new MapFeature(mapFeature.getName(), nonEmptySubclasses));
+            }
         });
+        return nonEmptyMapFeatures;
+    }
+
+    /**
+     * @return the name of the MapFeature the given split MapFeature (e.g. aeroway_points) was created from
+     */
+    public static String getBaseName(String splitMapFeatureName) {
+        for (String suffix : new String[]{POINTS_SUFFIX, LINES_SUFFIX, POLYGONS_SUFFIX}) {
+            if (splitMapFeatureName.endsWith(suffix)) {
+                return splitMapFeatureName.substring(0, splitMapFeatureName.length() - suffix.length());
+            }
+        }
+        return splitMapFeatureName;
+    }
+
+    private static void splitRule(Rule rule, Collection<Rule> pointRules, Collection<Rule> polygonRules, Collection<Rule> lineRules) {
+        List<Symbolizer> pointSymbolizers = new ArrayList<>();
+        List<Symbolizer> polygonSymbolizers = new ArrayList<>();
+        List<Symbolizer> lineSymbolizers = new ArrayList<>();
+        List<Symbolizer> textSymbolizers = new ArrayList<>();
+
+        for (Symbolizer symbolizer : rule.symbolizers()) {
+            if (symbolizer instanceof PointSymbolizerImpl) {
+                pointSymbolizers.add(symbolizer);
+            } else if (symbolizer instanceof PolygonSymbolizerImpl) {
+                polygonSymbolizers.add(symbolizer);
+            } else if (symbolizer instanceof LineSymbolizerImpl) {
+                lineSymbolizers.add(symbolizer);
+            }
+            if (symbolizer instanceof TextSymbolizer) {
+                textSymbolizers.add(symbolizer);
+            }
+        }
+
+        addCopyWithSymbolizers(rule, pointSymbolizers, textSymbolizers, pointRules);
+        addCopyWithSymbolizers(rule, polygonSymbolizers, textSymbolizers, polygonRules);
+        addCopyWithSymbolizers(rule, lineSymbolizers, textSymbolizers, lineRules);
+    }
+
+    /**
+     * Adds a copy of the rule that only contains the symbolizers of one geometry type and the TextSymbolizers if there
+     * are symbolizers for the geometry type.
+     */
+    private static void addCopyWithSymbolizers(Rule rule, List<Symbolizer> symbolizersOfType, List<Symbolizer> textSymbolizers, Collection<Rule> rulesForType) {
+        if (symbolizersOfType.isEmpty()) {
+            return;
+        }
 
-        return copyOfMapFeature;
+        Rule copyOfRule = new RuleImpl(rule);
+        copyOfRule.symbolizers().clear();
+        copyOfRule.symbolizers().addAll(symbolizersOfType);
+        copyOfRule.symbolizers().addAll(textSymbolizers);
+        rulesForType.add(copyOfRule);
     }
-}
\ No newline at end of file
+}
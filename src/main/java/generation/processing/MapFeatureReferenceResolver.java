@@ -7,20 +7,14 @@ import model.styling.MapFeatureReference;
 import model.styling.MapFeatureSubclass;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 class MapFeatureReferenceResolver {
 
     private final Logger logger = LogManager.getLogger(MapFeatureReferenceResolver.class);
-    private static final int MAX_RESOLVING_ATTEMPTS = 10;
 
-    private Collection<MapFeature> mapFeatures;
     private Classification classification;
 
     public MapFeatureReferenceResolver(Classification classification) {
@@ -28,67 +22,89 @@ class MapFeatureReferenceResolver {
     }
 
     /**
-     * The resolving of MapFeatureReferences has to run a loop because it might be that there are references
-     * to other MapFeatureReferences so they need to be resolved first.
+     * Replaces every MapFeatureReference with a MapFeature that has the subclasses of the referenced MapFeature.
+     * <p>
+     * The sameAs references form a graph which is resolved in a single pass: the chain of every reference is followed
+     * to a declared MapFeature and resolved backwards, so that every MapFeatureReference is resolved exactly once.
+     * Names are compared case-insensitively. References to non-existent MapFeatures and cyclic references are reported
+     * as errors and stay unresolved.
+     *
+     * @return a new collection in which every resolved MapFeatureReference is replaced at its position
      */
     public Collection<MapFeature> resolveMapFeatureReferences(Collection<MapFeature> mapFeatures) {
-        // copy mapfeatures to prevent side effects on original collection
-        this.mapFeatures = new ArrayList<>(mapFeatures);
-
-        repeatedlyTryResolving(MAX_RESOLVING_ATTEMPTS);
-        return this.mapFeatures;
-    }
-
-    private void repeatedlyTryResolving(int maxAttempts) {
-        int exitCounter = maxAttempts;
-
-        Collection<MapFeatureReference> mapFeatureReferences;
-        do {
-            mapFeatureReferences = getMapFeatureReferences();
-
-            Iterator<MapFeatureReference> iterator = mapFeatureReferences.iterator();
-            while (iterator.hasNext()) {
-                MapFeatureReference next = iterator.next();
-                try {
-                    boolean replacementSuccessful = replaceReferenceWithMapFeature(next);
-                    if (!replacementSuccessful) {
-                        exitCounter--;
-                    }
-                } catch (IllegalArgumentException e) {
-                    logger.error(e.getMessage());
-                    iterator.remove();
-                }
+        Map<String, MapFeature> mapFeatureIndex = new HashMap<>();
+        mapFeatures.forEach(mapFeature -> mapFeatureIndex.putIfAbsent(getKey(mapFeature.getName()), mapFeature));
+
+        // the resolved MapFeature for every MapFeatureReference, null if it cannot be resolved
+        Map<MapFeatureReference, MapFeature> resolvedReferences = new IdentityHashMap<>();
+        for (MapFeature mapFeature : mapFeatures) {
+            if (mapFeature instanceof MapFeatureReference && !resolvedReferences.containsKey(mapFeature)) {
+                resolveChain((MapFeatureReference) mapFeature, mapFeatureIndex, resolvedReferences);
             }
+        }
 
-        } while (!mapFeatureReferences.isEmpty() && exitCounter > 0);
-    }
-
-    private Collection<MapFeatureReference> getMapFeatureReferences() {
+        // copy mapfeatures to prevent side effects on original collection
         return mapFeatures.stream()
-                .filter(mapFeature -> mapFeature instanceof MapFeatureReference)
-                .map(mapFeature -> (MapFeatureReference) mapFeature)
+                .map(mapFeature -> {
+                    MapFeature resolvedMapFeature = mapFeature instanceof MapFeatureReference ? resolvedReferences.get(mapFeature) : null;
+                    return resolvedMapFeature != null ? resolvedMapFeature : mapFeature;
+                })
                 .collect(Collectors.toList());
     }
 
     /**
-     * @param mapFeatureReference
-     * @return true if the replacement was successful
+     * Follows the sameAs references starting at the given MapFeatureReference until a declared or an already resolved
+     * MapFeature is reached and resolves all MapFeatureReferences on the way.
      */
-    private boolean replaceReferenceWithMapFeature(MapFeatureReference mapFeatureReference) throws IllegalArgumentException {
-        String nameOfReferencedMapFeature = mapFeatureReference.getNameOfReferencedMapFeature();
-        MapFeature mapFeatureWithName = findMapFeatureWithName(nameOfReferencedMapFeature);
+    private void resolveChain(MapFeatureReference start, Map<String, MapFeature> mapFeatureIndex, Map<MapFeatureReference, MapFeature> resolvedReferences) {
+        List<MapFeatureReference> chain = new ArrayList<>();
+        Set<MapFeatureReference> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        MapFeature baseMapFeature = null;
+        MapFeatureReference current = start;
+        while (current != null) {
+            chain.add(current);
+            visited.add(current);
+
+            MapFeature referencedMapFeature = mapFeatureIndex.get(getKey(current.getNameOfReferencedMapFeature()));
+            if (referencedMapFeature == null) {
+                logger.error("MapFeature {} is referencing non-existent MapFeature {}", current.getName(), current.getNameOfReferencedMapFeature());
+                break;
+            }
 
-        if (mapFeatureWithName instanceof MapFeatureReference) {
-            // found the mapfeature but it is just a reference
-            return false;
+            if (!(referencedMapFeature instanceof MapFeatureReference)) {
+                baseMapFeature = referencedMapFeature;
+                current = null;
+            } else if (resolvedReferences.containsKey(referencedMapFeature)) {
+                baseMapFeature = resolvedReferences.get(referencedMapFeature);
+                if (baseMapFeature == null) {
+                    logger.error("MapFeature {} cannot be resolved because it is referencing the unresolved MapFeature {}", current.getName(), current.getNameOfReferencedMapFeature());
+                }
+                current = null;
+            } else if (visited.contains(referencedMapFeature)) {
+                List<String> cycle = chain.subList(chain.indexOf(referencedMapFeature), chain.size()).stream()
+                        .map(MapFeature::getName)
+                        .collect(Collectors.toList());
+                cycle.add(referencedMapFeature.getName());
+                logger.error("MapFeatures reference each other in a cycle: {}", String.join(" -> ", cycle));
+                break;
+            } else {
+                current = (MapFeatureReference) referencedMapFeature;
+            }
         }
-        if (mapFeatureWithName != null) {
-            MapFeature mapFeatureReferenceReplacementFor = createMapFeatureReferenceReplacementFor(mapFeatureReference, mapFeatureWithName);
-            mapFeatures.add(mapFeatureReferenceReplacementFor);
-            mapFeatures.remove(mapFeatureReference);
-            return true;
-        } else {
-            throw new IllegalArgumentException("MapFeature " + mapFeatureReference.getName() + " is referencing non-existent MapFeature " + mapFeatureReference.getNameOfReferencedMapFeature());
+
+        // resolve backwards, every MapFeatureReference is based on the resolved MapFeature it references
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            MapFeatureReference mapFeatureReference = chain.get(i);
+            if (baseMapFeature == null) {
+                if (i < chain.size() - 1) {
+                    logger.error("MapFeature {} cannot be resolved because it is referencing the unresolved MapFeature {}", mapFeatureReference.getName(), mapFeatureReference.getNameOfReferencedMapFeature());
+                }
+                resolvedReferences.put(mapFeatureReference, null);
+            } else {
+                baseMapFeature = createMapFeatureReferenceReplacementFor(mapFeatureReference, baseMapFeature);
+                resolvedReferences.put(mapFeatureReference, baseMapFeature);
+            }
         }
     }
 
@@ -99,24 +115,19 @@ class MapFeatureReferenceResolver {
 
     private Collection<MapFeatureSubclass> getSubclassesMatchingClassificationFor(String className, Collection<MapFeatureSubclass> subclasses) {
         ClassificationClass classificationClass = classification.getClass(className);
-        Collection<String> subclassNames = classificationClass.getSubclassNames();
+        if (classificationClass == null) {
+            logger.warn("MapFeature {} is not part of the classification. None of the referenced subclasses are used.", className);
+            return new ArrayList<>();
+        }
 
         List<MapFeatureSubclass> mapFeatureSubclasses = subclasses.stream()
-                .filter(mapFeatureSubclass -> subclassNames.contains(mapFeatureSubclass.getSubclassName()))
+                .filter(mapFeatureSubclass -> classificationClass.hasSubClass(mapFeatureSubclass.getSubclassName()))
                 .collect(Collectors.toList());
 
         return mapFeatureSubclasses;
     }
 
-    @Nullable
-    private MapFeature findMapFeatureWithName(String name) {
-        List<MapFeature> mapFeaturesWithName = mapFeatures.stream()
-                .filter(mapFeature -> mapFeature.getName().equalsIgnoreCase(name))
-                .collect(Collectors.toList());
-        if (!mapFeaturesWithName.isEmpty()) {
-            return mapFeaturesWithName.get(0);
-        } else {
-            return null;
-        }
+    private static String getKey(String mapFeatureName) {
+        return mapFeatureName.toLowerCase(Locale.ROOT);
     }
 }
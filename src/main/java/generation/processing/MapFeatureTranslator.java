@@ -7,6 +7,7 @@ import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.styling.NamedLayer;
 import org.geotools.styling.StyleFactory;
 import org.geotools.styling.StyledLayerDescriptor;
+import util.ConcurrencyHelper;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -27,6 +28,17 @@ public class MapFeatureTranslator {
         return styledLayerDescriptors;
     }
 
+    /**
+     * Creates the SLDs on the given amount of worker threads. The SLDs are returned in the same order as the MapFeatures
+     * so the result is identical to the one of {@link #createStyledLayerDescriptorsFrom(Collection)}.
+     *
+     * @param mapFeatures The MapFeatures that should be translated
+     * @param workerCount The amount of threads that are used for the translation
+     */
+    public static Collection<StyledLayerDescriptor> createStyledLayerDescriptorsFrom(Collection<MapFeature> mapFeatures, int workerCount) {
+        return ConcurrencyHelper.mapInOrder(mapFeatures, MapFeatureTranslator::createSLDFor, workerCount);
+    }
+
     private static StyledLayerDescriptor createSLDFor(MapFeature mapFeature) {
         StyledLayerDescriptor sld = styleFactory.createStyledLayerDescriptor();
         NamedLayer layer = styleFactory.createNamedLayer();
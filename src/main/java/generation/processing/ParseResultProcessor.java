@@ -1,48 +1,221 @@
 package generation.processing;
 
 import generation.parser.ConfigParseResult;
+import metrics.MetricsRecorder;
 import model.classification.Classification;
 import model.styling.MapFeature;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.geotools.styling.StyledLayerDescriptor;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 public class ParseResultProcessor {
 
     private final Logger logger = LogManager.getLogger(ParseResultProcessor.class);
 
     private Classification classification;
+    private int workerCount;
+    private MetricsRecorder metricsRecorder = new MetricsRecorder();
+    private boolean pruneEmptyGeometryTypes = false;
+    private Set<String> tablesWithRows;
+    private boolean mergeFeatureTypeStyles = false;
+    private boolean mergeSubclassRules = false;
+    private boolean normalizeFilters = false;
+    private boolean mergeScaleRanges = false;
 
     public ParseResultProcessor(Classification classification) {
+        this(classification, 1);
+    }
+
+    /**
+     * @param classification The classification that is used to resolve references and to generate defaults
+     * @param workerCount    The amount of threads that are used to translate MapFeatures to SLDs
+     */
+    public ParseResultProcessor(Classification classification, int workerCount) {
         this.classification = classification;
+        this.workerCount = workerCount;
         mapFeatureReferenceResolver = new MapFeatureReferenceResolver(classification);
     }
 
     private MapFeatureReferenceResolver mapFeatureReferenceResolver;
 
+    /**
+     * @param metricsRecorder The recorder that measures every stage of the processing
+     */
+    public void setMetricsRecorder(MetricsRecorder metricsRecorder) {
+        this.metricsRecorder = metricsRecorder;
+    }
+
+    /**
+     * @param pruneEmptyGeometryTypes If true, no SLDs are created for geometry types of a MapFeature without any rules
+     */
+    public void setPruneEmptyGeometryTypes(boolean pruneEmptyGeometryTypes) {
+        this.pruneEmptyGeometryTypes = pruneEmptyGeometryTypes;
+    }
+
+    /**
+     * @param tablesWithRows The names of the tables that contain data, SLDs are only created for split MapFeatures
+     *                       (e.g. aeroway_points) with a table in this set. Null disables the check.
+     */
+    public void setTablesWithRows(@Nullable Set<String> tablesWithRows) {
+        this.tablesWithRows = tablesWithRows == null ? null : tablesWithRows.stream()
+                .map(tableName -> tableName.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * @param mergeFeatureTypeStyles If true, the FeatureTypeStyles of the subclasses are merged into as few rendering passes as possible
+     */
+    public void setMergeFeatureTypeStyles(boolean mergeFeatureTypeStyles) {
+        this.mergeFeatureTypeStyles = mergeFeatureTypeStyles;
+    }
+
+    /**
+     * @param mergeSubclassRules If true, subclasses whose rules only differ in their subclassname filter share their rules
+     */
+    public void setMergeSubclassRules(boolean mergeSubclassRules) {
+        this.mergeSubclassRules = mergeSubclassRules;
+    }
+
+    /**
+     * @param normalizeFilters If true, the filters of all rules are simplified and rules that never match are removed
+     */
+    public void setNormalizeFilters(boolean normalizeFilters) {
+        this.normalizeFilters = normalizeFilters;
+    }
+
+    /**
+     * @param mergeScaleRanges If true, identical rules of a subclass whose scale ranges touch are merged into one rule
+     */
+    public void setMergeScaleRanges(boolean mergeScaleRanges) {
+        this.mergeScaleRanges = mergeScaleRanges;
+    }
+
     public Collection<StyledLayerDescriptor> getStyledLayerDescriptorsFromParseResult(ConfigParseResult configParseResult, boolean generateDefaults) {
+        return getStyledLayerDescriptorsFromParseResult(configParseResult, generateDefaults, mapFeature -> true);
+    }
+
+    /**
+     * @param mapFeatureFilter Only the resolved MapFeatures that match this filter are split and translated to SLDs
+     */
+    public Collection<StyledLayerDescriptor> getStyledLayerDescriptorsFromParseResult(ConfigParseResult configParseResult, boolean generateDefaults, Predicate<MapFeature> mapFeatureFilter) {
         Collection<MapFeature> mapFeatures = configParseResult.getMapFeatures();
 
         logger.info("Starting processing of the following parse result: \n\t {}.", configParseResult);
 
         // order is important
         logger.info("Resolving references for PlaceholderRules...");
-        mapFeatures = PlaceholderRuleResolver.resolvePlaceholderRules(mapFeatures, configParseResult.getStyleGroups());
+        try (MetricsRecorder.Stage stage = metricsRecorder.startStage("placeholderResolution")) {
+            mapFeatures = PlaceholderRuleResolver.resolvePlaceholderRules(mapFeatures, configParseResult.getStyleGroups());
+            MetricsRecorder.countMapFeatures(stage, mapFeatures);
+        }
         logger.info("Resolving references between MapFeatures...");
-        mapFeatures = mapFeatureReferenceResolver.resolveMapFeatureReferences(mapFeatures);
+        try (MetricsRecorder.Stage stage = metricsRecorder.startStage("referenceResolution")) {
+            mapFeatures = mapFeatureReferenceResolver.resolveMapFeatureReferences(mapFeatures);
+            MetricsRecorder.countMapFeatures(stage, mapFeatures);
+        }
 
         if (generateDefaults) {
             logger.info("Creating MapFeatures with default values for non-declared classes from classification...");
-            mapFeatures = DefaultsFiller.fillRemaining(mapFeatures, classification);
+            try (MetricsRecorder.Stage stage = metricsRecorder.startStage("defaults")) {
+                mapFeatures = DefaultsFiller.fillRemaining(mapFeatures, classification);
+                MetricsRecorder.countMapFeatures(stage, mapFeatures);
+            }
         }
 
+        mapFeatures = mapFeatures.stream().filter(mapFeatureFilter).collect(Collectors.toList());
+
         logger.info("Splitting MapFeatures into geometry types...");
-        mapFeatures = MapFeatureGeometrySplitter.splitMapFeaturesIntoGeometryTypes(mapFeatures);
+        try (MetricsRecorder.Stage stage = metricsRecorder.startStage("splitting")) {
+            mapFeatures = MapFeatureGeometrySplitter.splitMapFeaturesIntoGeometryTypes(mapFeatures);
+            MetricsRecorder.countMapFeatures(stage, mapFeatures);
+        }
+
+        // normalizing can remove all rules of a geometry type, so it has to run before the pruning
+        if (normalizeFilters) {
+            logger.info("Normalizing the filters of the rules...");
+            try (MetricsRecorder.Stage stage = metricsRecorder.startStage("filterNormalization")) {
+                FilterNormalizer filterNormalizer = new FilterNormalizer();
+                mapFeatures = filterNormalizer.normalizeFilters(mapFeatures);
+                logger.info("Removed {} predicates and {} rules that can never match.", filterNormalizer.getRemovedPredicates(), filterNormalizer.getRemovedRules());
+                stage.count("removedPredicates", filterNormalizer.getRemovedPredicates());
+                stage.count("removedRules", filterNormalizer.getRemovedRules());
+                MetricsRecorder.countMapFeatures(stage, mapFeatures);
+            }
+        }
+
+        if (pruneEmptyGeometryTypes || tablesWithRows != null) {
+            logger.info("Removing geometry types without rules or data...");
+            try (MetricsRecorder.Stage stage = metricsRecorder.startStage("pruning")) {
+                mapFeatures = pruneGeometryTypes(mapFeatures);
+                MetricsRecorder.countMapFeatures(stage, mapFeatures);
+            }
+        }
+
+        if (mergeScaleRanges) {
+            logger.info("Merging rules with contiguous scale ranges...");
+            try (MetricsRecorder.Stage stage = metricsRecorder.startStage("scaleRangeMerging")) {
+                ScaleRangeMerger scaleRangeMerger = new ScaleRangeMerger();
+                mapFeatures = scaleRangeMerger.mergeScaleRanges(mapFeatures);
+                logger.info("Merged {} rules into rules with a wider scale range, found {} overlapping rules.", scaleRangeMerger.getMergedRules(), scaleRangeMerger.getOverlappingRules());
+                stage.count("mergedRules", scaleRangeMerger.getMergedRules());
+                stage.count("overlappingRules", scaleRangeMerger.getOverlappingRules());
+                MetricsRecorder.countMapFeatures(stage, mapFeatures);
+            }
+        }
+
+        if (mergeSubclassRules) {
+            logger.info("Merging rules of subclasses with identical styles...");
+            try (MetricsRecorder.Stage stage = metricsRecorder.startStage("ruleMerging")) {
+                int ruleCount = SubclassRuleMerger.countRules(mapFeatures);
+                mapFeatures = SubclassRuleMerger.mergeIdenticalSubclasses(mapFeatures);
+                logger.info("Merged {} rules into {}.", ruleCount, SubclassRuleMerger.countRules(mapFeatures));
+                stage.count("rulesBefore", ruleCount);
+                MetricsRecorder.countMapFeatures(stage, mapFeatures);
+            }
+        }
 
         logger.info("Transforming MapFeatures to SLDs...");
-        return MapFeatureTranslator.createStyledLayerDescriptorsFrom(mapFeatures);
+        Collection<StyledLayerDescriptor> styledLayerDescriptors;
+        try (MetricsRecorder.Stage stage = metricsRecorder.startStage("translation")) {
+            styledLayerDescriptors = MapFeatureTranslator.createStyledLayerDescriptorsFrom(mapFeatures, workerCount);
+            stage.count("slds", styledLayerDescriptors.size());
+        }
+
+        if (mergeFeatureTypeStyles) {
+            logger.info("Merging the FeatureTypeStyles of the subclasses...");
+            try (MetricsRecorder.Stage stage = metricsRecorder.startStage("styleMerging")) {
+                int featureTypeStyleCount = FeatureTypeStyleMerger.countFeatureTypeStyles(styledLayerDescriptors);
+                styledLayerDescriptors = FeatureTypeStyleMerger.mergeFeatureTypeStyles(styledLayerDescriptors);
+                int mergedFeatureTypeStyleCount = FeatureTypeStyleMerger.countFeatureTypeStyles(styledLayerDescriptors);
+                logger.info("Merged {} FeatureTypeStyles into {}.", featureTypeStyleCount, mergedFeatureTypeStyleCount);
+                stage.count("featureTypeStylesBefore", featureTypeStyleCount);
+                stage.count("featureTypeStyles", mergedFeatureTypeStyleCount);
+            }
+        }
+
+        return styledLayerDescriptors;
+    }
+
+    private Collection<MapFeature> pruneGeometryTypes(Collection<MapFeature> splitMapFeatures) {
+        int splitMapFeatureCount = splitMapFeatures.size();
+        Collection<MapFeature> prunedMapFeatures = splitMapFeatures;
+        if (pruneEmptyGeometryTypes) {
+            prunedMapFeatures = MapFeatureGeometrySplitter.removeEmptyGeometryTypes(prunedMapFeatures);
+        }
+        if (tablesWithRows != null) {
+            prunedMapFeatures = prunedMapFeatures.stream()
+                    .filter(mapFeature -> tablesWithRows.contains(mapFeature.getName().toLowerCase(Locale.ROOT)))
+                    .collect(Collectors.toList());
+        }
+        logger.info("Removed {} of {} geometry types.", splitMapFeatureCount - prunedMapFeatures.size(), splitMapFeatureCount);
+        return prunedMapFeatures;
     }
 
     // Logs statements about MapFeatures that don't exist in the classification
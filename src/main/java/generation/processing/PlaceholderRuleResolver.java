@@ -7,13 +7,9 @@ import model.styling.StyleGroup;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.geotools.styling.Rule;
-import org.jetbrains.annotations.Nullable;
 import util.RuleUtils;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 class PlaceholderRuleResolver {
@@ -24,7 +20,8 @@ class PlaceholderRuleResolver {
     }
 
     /**
-     * This method will find and replace existing PlaceholderRules with the Rules they refer to.
+     * This method will find and replace existing PlaceholderRules with the Rules they refer to. StyleGroups may refer to
+     * other StyleGroups that contain references themselves as long as the references don't form a cycle.
      * Will result in a side effect on the given StyleGroups and MapFeatures .
      *
      * @param mapFeatures MapFeatures that contain PlaceholderRules
@@ -34,89 +31,143 @@ class PlaceholderRuleResolver {
     public static Collection<MapFeature> resolvePlaceholderRules(Collection<MapFeature> mapFeatures, Collection<StyleGroup> styleGroups) {
         Collection<MapFeature> copyOfMapFeatures = new ArrayList<>(mapFeatures);
 
-        resolvePlaceholderRulesInStyleGroups(styleGroups);
-        resolvePlaceholderRulesInMapFeatures(copyOfMapFeatures, styleGroups);
+        Map<String, StyleGroup> styleGroupIndex = resolvePlaceholderRulesInStyleGroups(styleGroups);
+        resolvePlaceholderRulesInMapFeatures(copyOfMapFeatures, styleGroupIndex);
 
         return copyOfMapFeatures;
     }
 
-    private static void resolvePlaceholderRulesInStyleGroups(Collection<StyleGroup> styleGroups) {
-        Collection<StyleGroup> styleGroupsWithImplementedRules = getStyleGroupsWithImplementedRules(styleGroups);
-        Collection<StyleGroup> styleGroupsWithPlaceholderRules = getStyleGroupsThatContainPlaceholderRules(styleGroups);
+    /**
+     * Replaces the PlaceholderRules of every StyleGroup with the rules of the StyleGroup they refer to. StyleGroups are
+     * resolved in topological order, so a StyleGroup is only resolved after all StyleGroups it refers to. References
+     * to non-existent StyleGroups and cyclic references are reported as errors and their PlaceholderRules are removed.
+     *
+     * @return the StyleGroups indexed by name
+     */
+    private static Map<String, StyleGroup> resolvePlaceholderRulesInStyleGroups(Collection<StyleGroup> styleGroups) {
+        Map<String, StyleGroup> styleGroupIndex = createStyleGroupIndex(styleGroups);
+
+        // for every StyleGroup the StyleGroups that refer to it and the amount of StyleGroups it refers to
+        Map<String, List<String>> referencingStyleGroups = new HashMap<>();
+        Map<String, Integer> unresolvedReferenceCounts = new HashMap<>();
+        for (StyleGroup styleGroup : styleGroupIndex.values()) {
+            Set<String> referencedNames = getPlaceholderRules(styleGroup.getRules()).stream()
+                    .map(PlaceholderRule::getNameOfOriginal)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            int unresolvedReferenceCount = 0;
+            for (String referencedName : referencedNames) {
+                if (styleGroupIndex.containsKey(referencedName)) {
+                    referencingStyleGroups.computeIfAbsent(referencedName, name -> new ArrayList<>()).add(styleGroup.getName());
+                    unresolvedReferenceCount++;
+                } else {
+                    logger.error("StyleGroup {} is referencing non-existent StyleGroup {}", styleGroup.getName(), referencedName);
+                }
+            }
+            unresolvedReferenceCounts.put(styleGroup.getName(), unresolvedReferenceCount);
+        }
 
-        styleGroupsWithImplementedRules.forEach(styleGroupWithImplementedRules -> {
-            for (StyleGroup styleGroupWithPlaceholderRule : styleGroupsWithPlaceholderRules) {
-                tryReplacingPlaceholderRuleFor(styleGroupWithPlaceholderRule.getRules(), styleGroupWithImplementedRules.getRules());
+        Deque<String> resolvableStyleGroups = unresolvedReferenceCounts.entrySet().stream()
+                .filter(entry -> entry.getValue() == 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(ArrayDeque::new));
+        while (!resolvableStyleGroups.isEmpty()) {
+            String styleGroupName = resolvableStyleGroups.poll();
+            replacePlaceholdersInStyleGroup(styleGroupIndex.get(styleGroupName), styleGroupIndex, Collections.emptySet());
+            unresolvedReferenceCounts.remove(styleGroupName);
+
+            for (String referencingStyleGroup : referencingStyleGroups.getOrDefault(styleGroupName, Collections.emptyList())) {
+                if (unresolvedReferenceCounts.merge(referencingStyleGroup, -1, Integer::sum) == 0) {
+                    resolvableStyleGroups.add(referencingStyleGroup);
+                }
             }
-        });
+        }
 
-        // if stylegroups with remaining placeholder rules exist print error
-        Collection<StyleGroup> remainingStyleGroupsThatContainPlaceholderRules = getStyleGroupsThatContainPlaceholderRules(styleGroups);
-        remainingStyleGroupsThatContainPlaceholderRules.forEach(styleGroup -> {
-            logger.error("StyleGroup {} is referencing other styles that contain references. " +
-                    "You can only reference styles that don't contain references themselves.", styleGroup.getName());
-        });
-    }
+        // the remaining StyleGroups are part of a cycle or refer to one
+        if (!unresolvedReferenceCounts.isEmpty()) {
+            Set<String> unresolvedStyleGroupNames = new HashSet<>(unresolvedReferenceCounts.keySet());
+            reportCycles(unresolvedStyleGroupNames, styleGroupIndex);
+            unresolvedStyleGroupNames.forEach(styleGroupName -> replacePlaceholdersInStyleGroup(styleGroupIndex.get(styleGroupName), styleGroupIndex, unresolvedStyleGroupNames));
+        }
 
-    private static Collection<StyleGroup> getStyleGroupsWithImplementedRules(Collection<StyleGroup> styleGroups) {
-        Collection<StyleGroup> styleGroupsWithImplementedRules = new ArrayList<>();
+        return styleGroupIndex;
+    }
 
+    private static Map<String, StyleGroup> createStyleGroupIndex(Collection<StyleGroup> styleGroups) {
+        Map<String, StyleGroup> styleGroupIndex = new LinkedHashMap<>();
         styleGroups.forEach(styleGroup -> {
-            List<Rule> ruleList = styleGroup.getRules().stream()
-                    .filter(rule -> !(rule instanceof PlaceholderRule))
-                    .collect(Collectors.toList());
-            if (!ruleList.isEmpty()) {
-                styleGroupsWithImplementedRules.add(styleGroup);
+            if (styleGroupIndex.putIfAbsent(styleGroup.getName(), styleGroup) != null) {
+                logger.warn("StyleGroup {} is declared more than once. Only the first declaration is used.", styleGroup.getName());
             }
         });
-
-        return styleGroupsWithImplementedRules;
+        return styleGroupIndex;
     }
 
-    private static Collection<StyleGroup> getStyleGroupsThatContainPlaceholderRules(Collection<StyleGroup> styleGroups) {
-        Collection<StyleGroup> styleGroupsWithPlaceholderRules = new ArrayList<>();
+    /**
+     * Replaces every PlaceholderRule of the StyleGroup with the rules of the referenced StyleGroup in place. PlaceholderRules
+     * that refer to a non-existent or an ignored StyleGroup are removed.
+     */
+    private static void replacePlaceholdersInStyleGroup(StyleGroup styleGroup, Map<String, StyleGroup> styleGroupIndex, Set<String> ignoredStyleGroupNames) {
+        List<Rule> resolvedRules = new ArrayList<>();
+        for (Rule rule : styleGroup.getRules()) {
+            if (!(rule instanceof PlaceholderRule)) {
+                resolvedRules.add(rule);
+                continue;
+            }
 
-        styleGroups.forEach(styleGroup -> {
-            List<Rule> ruleList = styleGroup.getRules().stream()
-                    .filter(rule -> rule instanceof PlaceholderRule)
-                    .collect(Collectors.toList());
-            if (!ruleList.isEmpty()) {
-                styleGroupsWithPlaceholderRules.add(styleGroup);
+            String referencedName = ((PlaceholderRule) rule).getNameOfOriginal();
+            StyleGroup referencedStyleGroup = styleGroupIndex.get(referencedName);
+            if (referencedStyleGroup != null && !ignoredStyleGroupNames.contains(referencedName)) {
+                resolvedRules.addAll(referencedStyleGroup.getRules());
             }
-        });
+        }
 
-        return styleGroupsWithPlaceholderRules;
+        styleGroup.getRules().clear();
+        styleGroup.getRules().addAll(resolvedRules);
     }
 
-    private static void tryReplacingPlaceholderRuleFor(Collection<Rule> rulesWithPlaceholders, Collection<Rule> implementedRules) {
-        ArrayList<Rule> rulesWithReplacedPlaceholders = new ArrayList<>();
-        Iterator<Rule> ruleIterator = rulesWithPlaceholders.iterator();
-        while (ruleIterator.hasNext()) {
-            Rule rule = ruleIterator.next();
-
-            if (rule instanceof PlaceholderRule) {
-                String nameOfOriginal = ((PlaceholderRule) rule).getNameOfOriginal();
+    private static void reportCycles(Set<String> unresolvedStyleGroupNames, Map<String, StyleGroup> styleGroupIndex) {
+        Set<String> reportedStyleGroupNames = new HashSet<>();
+        for (String styleGroupName : unresolvedStyleGroupNames) {
+            if (reportedStyleGroupNames.contains(styleGroupName)) {
+                continue;
+            }
 
-                Rule implementedRuleForPlaceholder = implementedRules.stream()
-                        .filter(implementedRule -> implementedRule.getName().equals(nameOfOriginal))
-                        .findFirst().orElse(null);
+            // follow unresolved references until a StyleGroup repeats, every unresolved StyleGroup has at least one
+            List<String> path = new ArrayList<>();
+            String current = styleGroupName;
+            while (!path.contains(current) && !reportedStyleGroupNames.contains(current)) {
+                path.add(current);
+                current = getPlaceholderRules(styleGroupIndex.get(current).getRules()).stream()
+                        .map(PlaceholderRule::getNameOfOriginal)
+                        .filter(unresolvedStyleGroupNames::contains)
+                        .findFirst().orElseThrow(IllegalStateException::new);
+            }
 
-                if (implementedRuleForPlaceholder != null) {
-                    ruleIterator.remove();
-                    rulesWithReplacedPlaceholders.add(implementedRuleForPlaceholder);
-                }
+            if (path.contains(current)) {
+                List<String> cycle = new ArrayList<>(path.subList(path.indexOf(current), path.size()));
+                cycle.add(current);
+                logger.error("The StyleGroups {} reference each other in a cycle: {}. Their references are ignored.", new HashSet<>(cycle), String.join(" -> ", cycle));
+                path.removeAll(cycle);
+                reportedStyleGroupNames.addAll(cycle);
             }
+            path.forEach(name -> logger.error("StyleGroup {} is referencing StyleGroups with cyclic references. Its references to them are ignored.", name));
+            reportedStyleGroupNames.addAll(path);
         }
+    }
 
-        rulesWithPlaceholders.addAll(rulesWithReplacedPlaceholders);
+    private static List<PlaceholderRule> getPlaceholderRules(Collection<Rule> rules) {
+        return rules.stream()
+                .filter(rule -> rule instanceof PlaceholderRule)
+                .map(rule -> (PlaceholderRule) rule)
+                .collect(Collectors.toList());
     }
 
-    private static void resolvePlaceholderRulesInMapFeatures(Collection<MapFeature> mapFeatures, Collection<StyleGroup> styleGroups) {
+    private static void resolvePlaceholderRulesInMapFeatures(Collection<MapFeature> mapFeatures, Map<String, StyleGroup> styleGroupIndex) {
         for (MapFeature mapFeature : mapFeatures) {
             Collection<MapFeatureSubclass> subclassesThatContainPlaceholderRules = getSubclassesThatContainPlaceholderRules(mapFeature.getSubclasses());
 
             subclassesThatContainPlaceholderRules.forEach(mapFeatureSubclass -> {
-                replacePlaceholdersInSubclass(mapFeatureSubclass, styleGroups);
+                replacePlaceholdersInSubclass(mapFeatureSubclass, styleGroupIndex);
             });
         }
     }
@@ -136,13 +187,13 @@ class PlaceholderRuleResolver {
         return subclassesWithPlaceholders;
     }
 
-    private static void replacePlaceholdersInSubclass(MapFeatureSubclass subclass, Collection<StyleGroup> styleGroups) {
-        Collection<PlaceholderRule> placeholderRules = getStylePlaceholderRulesFromSubclass(subclass);
+    private static void replacePlaceholdersInSubclass(MapFeatureSubclass subclass, Map<String, StyleGroup> styleGroupIndex) {
+        Collection<PlaceholderRule> placeholderRules = getPlaceholderRules(subclass.getRules());
 
         placeholderRules.forEach(placeholderRule -> {
             String nameOfOriginal = placeholderRule.getNameOfOriginal();
 
-            StyleGroup styleGroupWithName = findStyleGroupWithName(styleGroups, nameOfOriginal);
+            StyleGroup styleGroupWithName = styleGroupIndex.get(nameOfOriginal);
             if (styleGroupWithName != null) {
                 Collection<Rule> rulesWithModifiedZoom = createCopyOfRulesBasedOnPlaceholder(styleGroupWithName.getRules(), placeholderRule);
                 subclass.getRules().addAll(rulesWithModifiedZoom);
@@ -154,25 +205,6 @@ class PlaceholderRuleResolver {
         subclass.getRules().removeAll(placeholderRules);
     }
 
-    private static Collection<PlaceholderRule> getStylePlaceholderRulesFromSubclass(MapFeatureSubclass subclass) {
-        return subclass.getRules().stream()
-                .filter(rule -> rule instanceof PlaceholderRule)
-                .map(rule -> (PlaceholderRule) rule)
-                .collect(Collectors.toList());
-    }
-
-    @Nullable
-    private static StyleGroup findStyleGroupWithName(Collection<StyleGroup> styleGroups, String name) {
-        List<StyleGroup> styleGroupsWithName = styleGroups.stream()
-                .filter(styleGroup -> styleGroup.getName().equals(name))
-                .collect(Collectors.toList());
-        if (!styleGroupsWithName.isEmpty()) {
-            return styleGroupsWithName.get(0);
-        } else {
-            return null;
-        }
-    }
-
     private static Collection<Rule> createCopyOfRulesBasedOnPlaceholder(Collection<Rule> rulesWithoutZoom, Rule placeholderRule) {
         Collection<Rule> modifiedRules = new ArrayList<>();
 
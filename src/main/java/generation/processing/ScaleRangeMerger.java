@@ -0,0 +1,133 @@
+package generation.processing;
+
+import model.styling.MapFeature;
+import model.styling.MapFeatureSubclass;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.geotools.styling.Rule;
+import org.geotools.styling.RuleImpl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Merges the rules of a subclass that only differ in their scale range into a single rule with the combined scale range.
+ * <p>
+ * Two scale ranges are only merged if one ends exactly where the other begins, so the merged rule is not visible at any
+ * scale that none of the original rules covered. A rule is only moved to the position of the rule it is merged into if
+ * none of the rules in between is visible at its scales, so the paint order at every scale stays the same.
+ * Identical rules whose scale ranges overlap draw the same features twice, they are reported but not changed.
+ */
+public class ScaleRangeMerger {
+
+    private static final Logger logger = LogManager.getLogger(ScaleRangeMerger.class);
+
+    private int mergedRules = 0;
+    private int overlappingRules = 0;
+
+    /**
+     * @return copies of the MapFeatures, the passed MapFeatures are not modified
+     */
+    public Collection<MapFeature> mergeScaleRanges(Collection<MapFeature> mapFeatures) {
+        List<MapFeature> mergedMapFeatures = new ArrayList<>(mapFeatures.size());
+        for (MapFeature mapFeature : mapFeatures) {
+            List<MapFeatureSubclass> mergedSubclasses = new ArrayList<>();
+            for (MapFeatureSubclass subclass : mapFeature.getSubclasses()) {
+                List<Rule> rules = mergeRules(subclass.getRules());
+                reportOverlaps(mapFeature, subclass, rules);
+                mergedSubclasses.add(rules.size() == subclass.getRules().size() ? subclass : new MapFeatureSubclass(subclass.getSubclassName(), rules));
+            }
+            mergedMapFeatures.add(new MapFeature(mapFeature.getName(), mergedSubclasses));
+        }
+        return mergedMapFeatures;
+    }
+
+    /**
+     * @return the amount of rules that were merged into another rule
+     */
+    public int getMergedRules() {
+        return mergedRules;
+    }
+
+    /**
+     * @return the amount of pairs of identical rules with overlapping scale ranges
+     */
+    public int getOverlappingRules() {
+        return overlappingRules;
+    }
+
+    private List<Rule> mergeRules(Collection<Rule> rules) {
+        List<Rule> result = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            int targetIndex = findMergeTarget(result, rule);
+            if (targetIndex < 0) {
+                result.add(rule);
+                continue;
+            }
+
+            Rule target = result.get(targetIndex);
+            Rule widerRule = new RuleImpl(target);
+            widerRule.setMinScaleDenominator(Math.min(target.getMinScaleDenominator(), rule.getMinScaleDenominator()));
+            widerRule.setMaxScaleDenominator(Math.max(target.getMaxScaleDenominator(), rule.getMaxScaleDenominator()));
+            result.set(targetIndex, widerRule);
+            mergedRules++;
+        }
+        return result;
+    }
+
+    /**
+     * @return the index of the rule that the passed rule can be merged into or -1
+     */
+    private static int findMergeTarget(List<Rule> precedingRules, Rule rule) {
+        for (int i = precedingRules.size() - 1; i >= 0; i--) {
+            Rule candidate = precedingRules.get(i);
+            if (areContiguous(candidate, rule) && haveSameStyling(candidate, rule)) {
+                return i;
+            }
+            // the rule would be painted before this one at its scales
+            if (overlap(candidate, rule)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private void reportOverlaps(MapFeature mapFeature, MapFeatureSubclass subclass, List<Rule> rules) {
+        for (int i = 0; i < rules.size(); i++) {
+            for (int j = i + 1; j < rules.size(); j++) {
+                if (overlap(rules.get(i), rules.get(j)) && haveSameStyling(rules.get(i), rules.get(j))) {
+                    logger.warn("Rules {} and {} of subclass {} of MapFeature {} have overlapping scale ranges and draw the same features twice.",
+                            i, j, subclass.getSubclassName(), mapFeature.getName());
+                    overlappingRules++;
+                }
+            }
+        }
+    }
+
+    private static boolean haveSameStyling(Rule first, Rule second) {
+        return withoutScaleRange(first).equals(withoutScaleRange(second));
+    }
+
+    private static Rule withoutScaleRange(Rule rule) {
+        Rule copy = new RuleImpl(rule);
+        copy.setMinScaleDenominator(0);
+        copy.setMaxScaleDenominator(Double.POSITIVE_INFINITY);
+        return copy;
+    }
+
+    private static boolean overlap(Rule first, Rule second) {
+        return first.getMinScaleDenominator() < second.getMaxScaleDenominator() && second.getMinScaleDenominator() < first.getMaxScaleDenominator();
+    }
+
+    private static boolean areContiguous(Rule first, Rule second) {
+        return touch(first, second) || touch(second, first);
+    }
+
+    /**
+     * @return true if the smaller scales of the lower rule end where the larger scales of the upper rule begin
+     */
+    private static boolean touch(Rule lower, Rule upper) {
+        return lower.getMaxScaleDenominator() == upper.getMinScaleDenominator();
+    }
+}
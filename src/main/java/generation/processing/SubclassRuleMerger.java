@@ -0,0 +1,179 @@
+package generation.processing;
+
+import model.styling.MapFeature;
+import model.styling.MapFeatureSubclass;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.styling.Rule;
+import org.geotools.styling.RuleImpl;
+import org.jetbrains.annotations.Nullable;
+import org.opengis.filter.*;
+import org.opengis.filter.expression.Expression;
+import org.opengis.filter.expression.Literal;
+import org.opengis.filter.expression.PropertyName;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Merges the subclasses of a MapFeature whose rules only differ in their subclassname filter, so that GeoServer
+ * evaluates one rule with a subclassname IN (...) filter instead of one rule per subclass.
+ * <p>
+ * Subclasses are only merged if their complete rule lists are equal apart from the subclassname filter, which keeps the
+ * order of the rules that apply to a feature. The merged subclass takes the position of the first of its subclasses.
+ * The IN filter is written as an Or of PropertyIsEqualTo filters, which is how SLD 1.0 expresses it.
+ */
+public class SubclassRuleMerger {
+
+    private static final String SUBCLASS_ATTRIBUTE = "subclassname";
+
+    private static final Logger logger = LogManager.getLogger(SubclassRuleMerger.class);
+    private static final FilterFactory2 filterFactory = CommonFactoryFinder.getFilterFactory2();
+
+    private SubclassRuleMerger() {
+    }
+
+    public static Collection<MapFeature> mergeIdenticalSubclasses(Collection<MapFeature> mapFeatures) {
+        List<MapFeature> mergedMapFeatures = new ArrayList<>(mapFeatures.size());
+        mapFeatures.forEach(mapFeature -> mergedMapFeatures.add(mergeIdenticalSubclasses(mapFeature)));
+        return mergedMapFeatures;
+    }
+
+    static MapFeature mergeIdenticalSubclasses(MapFeature mapFeature) {
+        // subclasses with the same rules apart from the subclassname filter, in the order of their first occurrence
+        Map<List<Rule>, List<SplitSubclass>> subclassesByRules = new HashMap<>();
+        List<List<SplitSubclass>> groups = new ArrayList<>();
+        for (MapFeatureSubclass subclass : mapFeature.getSubclasses()) {
+            SplitSubclass splitSubclass = SplitSubclass.of(subclass);
+            if (splitSubclass.rulesWithoutSubclassFilter == null) {
+                groups.add(Collections.singletonList(splitSubclass));
+                continue;
+            }
+            List<SplitSubclass> group = subclassesByRules.get(splitSubclass.rulesWithoutSubclassFilter);
+            if (group == null) {
+                group = new ArrayList<>();
+                subclassesByRules.put(splitSubclass.rulesWithoutSubclassFilter, group);
+                groups.add(group);
+            }
+            group.add(splitSubclass);
+        }
+
+        if (groups.size() == mapFeature.getSubclasses().size()) {
+            return mapFeature;
+        }
+
+        Collection<MapFeatureSubclass> mergedSubclasses = groups.stream().map(SubclassRuleMerger::merge).collect(Collectors.toList());
+        logger.debug("Merged {} subclasses of MapFeature {} into {}.", mapFeature.getSubclasses().size(), mapFeature.getName(), mergedSubclasses.size());
+        return new MapFeature(mapFeature.getName(), mergedSubclasses);
+    }
+
+    /**
+     * @return the amount of rules of all subclasses of the MapFeatures
+     */
+    public static int countRules(Collection<MapFeature> mapFeatures) {
+        return mapFeatures.stream()
+                .flatMap(mapFeature -> mapFeature.getSubclasses().stream())
+                .mapToInt(subclass -> subclass.getRules().size())
+                .sum();
+    }
+
+    private static MapFeatureSubclass merge(List<SplitSubclass> group) {
+        MapFeatureSubclass first = group.get(0).subclass;
+        if (group.size() == 1) {
+            return first;
+        }
+
+        List<Filter> subclassFilters = group.stream()
+                .map(splitSubclass -> filterFactory.equals(filterFactory.property(SUBCLASS_ATTRIBUTE), filterFactory.literal(splitSubclass.subclassValue)))
+                .collect(Collectors.toList());
+        Filter inFilter = filterFactory.or(subclassFilters);
+
+        List<Rule> mergedRules = new ArrayList<>();
+        for (Rule ruleWithoutSubclassFilter : group.get(0).rulesWithoutSubclassFilter) {
+            Rule mergedRule = new RuleImpl(ruleWithoutSubclassFilter);
+            Filter remainingFilter = ruleWithoutSubclassFilter.getFilter();
+            mergedRule.setFilter(remainingFilter instanceof IncludeFilter ? inFilter : filterFactory.and(remainingFilter, inFilter));
+            mergedRules.add(mergedRule);
+        }
+        return new MapFeatureSubclass(first.getSubclassName(), mergedRules);
+    }
+
+    /**
+     * A subclass whose rules all filter on the same subclassname, with copies of the rules without that filter. Both
+     * are null if the subclass cannot be merged.
+     */
+    private static class SplitSubclass {
+        private final MapFeatureSubclass subclass;
+        private final Object subclassValue;
+        private final List<Rule> rulesWithoutSubclassFilter;
+
+        private SplitSubclass(MapFeatureSubclass subclass, Object subclassValue, List<Rule> rulesWithoutSubclassFilter) {
+            this.subclass = subclass;
+            this.subclassValue = subclassValue;
+            this.rulesWithoutSubclassFilter = rulesWithoutSubclassFilter;
+        }
+
+        private static SplitSubclass of(MapFeatureSubclass subclass) {
+            SplitSubclass unmergeable = new SplitSubclass(subclass, null, null);
+            if (subclass.getRules().isEmpty()) {
+                return unmergeable;
+            }
+
+            Object subclassValue = null;
+            List<Rule> rulesWithoutSubclassFilter = new ArrayList<>();
+            for (Rule rule : subclass.getRules()) {
+                if (rule.isElseFilter() || rule.getFilter() == null) {
+                    return unmergeable;
+                }
+
+                Object ruleSubclassValue = getSubclassValue(rule.getFilter());
+                Filter remainingFilter = Filter.INCLUDE;
+                if (ruleSubclassValue == null && rule.getFilter() instanceof And) {
+                    List<Filter> children = new ArrayList<>(((And) rule.getFilter()).getChildren());
+                    for (Iterator<Filter> iterator = children.iterator(); iterator.hasNext() && ruleSubclassValue == null; ) {
+                        ruleSubclassValue = getSubclassValue(iterator.next());
+                        if (ruleSubclassValue != null) {
+                            iterator.remove();
+                        }
+                    }
+                    if (children.isEmpty()) {
+                        remainingFilter = Filter.INCLUDE;
+                    } else {
+                        remainingFilter = children.size() == 1 ? children.get(0) : filterFactory.and(children);
+                    }
+                }
+
+                if (ruleSubclassValue == null || (subclassValue != null && !subclassValue.equals(ruleSubclassValue))) {
+                    return unmergeable;
+                }
+                subclassValue = ruleSubclassValue;
+
+                Rule ruleWithoutSubclassFilter = new RuleImpl(rule);
+                ruleWithoutSubclassFilter.setFilter(remainingFilter);
+                rulesWithoutSubclassFilter.add(ruleWithoutSubclassFilter);
+            }
+            return new SplitSubclass(subclass, subclassValue, rulesWithoutSubclassFilter);
+        }
+
+        /**
+         * @return the compared value if the filter is subclassname = 'value', otherwise null
+         */
+        @Nullable
+        private static Object getSubclassValue(Filter filter) {
+            if (!(filter instanceof PropertyIsEqualTo)) {
+                return null;
+            }
+            PropertyIsEqualTo equalTo = (PropertyIsEqualTo) filter;
+            Expression first = equalTo.getExpression1();
+            Expression second = equalTo.getExpression2();
+            if (first instanceof PropertyName && second instanceof Literal && SUBCLASS_ATTRIBUTE.equals(((PropertyName) first).getPropertyName())) {
+                return ((Literal) second).getValue();
+            }
+            if (second instanceof PropertyName && first instanceof Literal && SUBCLASS_ATTRIBUTE.equals(((PropertyName) second).getPropertyName())) {
+                return ((Literal) first).getValue();
+            }
+            return null;
+        }
+    }
+}
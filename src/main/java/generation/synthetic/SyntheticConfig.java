@@ -0,0 +1,25 @@
+package generation.synthetic;
+
+import model.classification.Classification;
+
+/**
+ * A generated OHDM configuration together with the classification that contains all of its MapFeatures.
+ */
+public class SyntheticConfig {
+
+    private final String content;
+    private final Classification classification;
+
+    SyntheticConfig(String content, Classification classification) {
+        this.content = content;
+        this.classification = classification;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public Classification getClassification() {
+        return classification;
+    }
+}
@@ -0,0 +1,227 @@
+package generation.synthetic;
+
+import model.classification.Classification;
+import model.classification.ClassificationClass;
+import model.classification.ClassificationImpl;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Generates OHDM configurations of arbitrary size and shape for benchmarks and load tests.
+ * <p>
+ * The MapFeatures are derived from the classes of a base classification. If more MapFeatures than classes are requested,
+ * the classes are repeated with a numeric suffix. Only MapFeatures named after a class of the base classification use
+ * sameAs, so that the generated config can also be processed with the base classification. The classification returned
+ * with the config additionally contains the suffixed classes.
+ */
+public class SyntheticConfigGenerator {
+
+    private static final String[] ZOOM_REGIONS = {"[default]", "[0-10]", "[11-14]", "[>12]", "[<8]", "[>16]"};
+    private static final String[] COLORS = {"#000080", "#40FF40", "#009900", "#FF0000", "#333333", "#FFFFFF", "#666666"};
+    private static final String[] GEOMETRY_TYPES = {"Polygon", "Line", "Point"};
+    private static final int MAX_STYLE_GROUPS_PER_PLACEHOLDER = 3;
+
+    private final List<ClassificationClass> baseClasses;
+    private final SyntheticConfigSettings settings;
+    private final Random random;
+
+    public SyntheticConfigGenerator(Classification baseClassification, long seed) {
+        this(baseClassification, new SyntheticConfigSettings(), seed);
+    }
+
+    /**
+     * @param baseClassification The classification whose classes and subclasses are used for the MapFeatures
+     * @param settings           The shape of the generated configurations
+     * @param seed               The seed that makes the generated configuration reproducible
+     */
+    public SyntheticConfigGenerator(Classification baseClassification, SyntheticConfigSettings settings, long seed) {
+        this.baseClasses = new ArrayList<>(baseClassification.getClasses());
+        this.settings = settings;
+        this.random = new Random(seed);
+        assertSettings();
+    }
+
+    private void assertSettings() {
+        if (baseClasses.isEmpty()) {
+            throw new IllegalArgumentException("The base classification has to contain at least one class.");
+        }
+        if (settings.getStyleGroupCount() < 1) {
+            throw new IllegalArgumentException("At least one StyleGroup is required.");
+        }
+        if (settings.getMaxSubclassesPerMapFeature() < 1 || settings.getMaxZoomRegionsPerSubclass() < 1) {
+            throw new IllegalArgumentException("Every MapFeature requires at least one subclass with one zoom region.");
+        }
+        assertRatio("useStyle", settings.getUseStyleRatio());
+        assertRatio("sameAs", settings.getSameAsRatio());
+        assertRatio("nested StyleGroup", settings.getNestedStyleGroupRatio());
+        assertRatio("complex CSS", settings.getComplexCssRatio());
+    }
+
+    private static void assertRatio(String name, double ratio) {
+        if (ratio < 0 || ratio > 1) {
+            throw new IllegalArgumentException("The " + name + " ratio has to be between 0 and 1 but is " + ratio + ".");
+        }
+    }
+
+    public SyntheticConfig generate() {
+        return generate(settings.getMapFeatureCount());
+    }
+
+    public SyntheticConfig generate(int mapFeatureCount) {
+        ClassificationImpl classification = new ClassificationImpl();
+        baseClasses.forEach(baseClass -> classification.addClassIfAbsent(new ClassificationClass(baseClass.getClassName(), new ArrayList<>(baseClass.getSubclassNames()))));
+
+        List<String> styleGroupNames = createStyleGroupNames();
+        StringBuilder content = new StringBuilder();
+        // length of the sameAs chain that ends in every MapFeature, 0 for MapFeatures with subclasses
+        Map<String, Integer> chainLengths = new LinkedHashMap<>();
+
+        for (int i = 0; i < mapFeatureCount; i++) {
+            ClassificationClass baseClass = baseClasses.get(i % baseClasses.size());
+            boolean isBaseName = i < baseClasses.size();
+            String name = isBaseName ? baseClass.getClassName() : baseClass.getClassName() + "_" + i;
+            if (!isBaseName) {
+                classification.addClassIfAbsent(new ClassificationClass(name, new ArrayList<>(baseClass.getSubclassNames())));
+            }
+
+            String referencedName = isBaseName && random.nextDouble() < settings.getSameAsRatio() ? selectReferencedMapFeature(chainLengths) : null;
+            if (referencedName != null) {
+                appendMapFeatureReference(content, name, referencedName);
+                chainLengths.put(name, chainLengths.get(referencedName) + 1);
+            } else {
+                appendMapFeature(content, name, baseClass, styleGroupNames);
+                chainLengths.put(name, 0);
+            }
+        }
+
+        appendStyleGroups(content, styleGroupNames);
+        return new SyntheticConfig(content.toString(), classification);
+    }
+
+    private List<String> createStyleGroupNames() {
+        List<String> styleGroupNames = new ArrayList<>();
+        for (int i = 0; i < settings.getStyleGroupCount(); i++) {
+            styleGroupNames.add(GEOMETRY_TYPES[i % GEOMETRY_TYPES.length] + i);
+        }
+        return styleGroupNames;
+    }
+
+    private String selectReferencedMapFeature(Map<String, Integer> chainLengths) {
+        List<String> candidates = chainLengths.entrySet().stream()
+                .filter(entry -> entry.getValue() < settings.getMaxSameAsChainLength())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        return candidates.isEmpty() ? null : candidates.get(random.nextInt(candidates.size()));
+    }
+
+    private void appendMapFeature(StringBuilder content, String name, ClassificationClass baseClass, List<String> styleGroupNames) {
+        content.append('[').append(name).append("] {\n");
+
+        List<String> subclassNames = baseClass.getSubclassNames().stream()
+                .filter(SyntheticConfigGenerator::isValidName)
+                .collect(Collectors.toList());
+        Collections.shuffle(subclassNames, random);
+        int subclassCount = 1 + random.nextInt(settings.getMaxSubclassesPerMapFeature());
+        subclassNames = subclassNames.subList(0, Math.min(subclassCount, subclassNames.size()));
+        if (subclassNames.isEmpty()) {
+            subclassNames = Collections.singletonList("undefined");
+        }
+
+        for (String subclassName : subclassNames) {
+            content.append("    [").append(subclassName).append("] {\n");
+
+            List<String> zoomRegions = new ArrayList<>(Arrays.asList(ZOOM_REGIONS));
+            Collections.shuffle(zoomRegions, random);
+            int zoomRegionCount = 1 + random.nextInt(Math.min(settings.getMaxZoomRegionsPerSubclass(), zoomRegions.size()));
+            for (String zoomRegion : zoomRegions.subList(0, zoomRegionCount)) {
+                content.append("        ").append(zoomRegion).append(" {\n");
+                if (random.nextDouble() < settings.getUseStyleRatio()) {
+                    content.append("            useStyle = ").append(String.join(", ", selectStyleGroups(styleGroupNames))).append('\n');
+                } else {
+                    appendCss(content, GEOMETRY_TYPES[random.nextInt(GEOMETRY_TYPES.length)], "            ");
+                }
+                content.append("        }\n");
+            }
+            content.append("    }\n");
+        }
+        content.append("}\n\n");
+    }
+
+    private List<String> selectStyleGroups(List<String> styleGroupNames) {
+        List<String> selectedStyleGroupNames = new ArrayList<>(styleGroupNames);
+        Collections.shuffle(selectedStyleGroupNames, random);
+        int count = 1 + random.nextInt(Math.min(MAX_STYLE_GROUPS_PER_PLACEHOLDER, selectedStyleGroupNames.size()));
+        return selectedStyleGroupNames.subList(0, count);
+    }
+
+    private void appendMapFeatureReference(StringBuilder content, String name, String referencedName) {
+        content.append('[').append(name).append("] {\n")
+                .append("    sameAs = ").append(referencedName).append('\n')
+                .append("}\n\n");
+    }
+
+    private void appendStyleGroups(StringBuilder content, List<String> styleGroupNames) {
+        for (int i = 0; i < styleGroupNames.size(); i++) {
+            String styleGroupName = styleGroupNames.get(i);
+            content.append('<').append(styleGroupName).append("> {\n");
+            // only preceding StyleGroups are referenced, so nested StyleGroups form chains but no cycles
+            if (i > 0 && random.nextDouble() < settings.getNestedStyleGroupRatio()) {
+                content.append("    useStyle = ").append(String.join(", ", selectStyleGroups(styleGroupNames.subList(0, i)))).append('\n');
+            } else {
+                appendCss(content, GEOMETRY_TYPES[i % GEOMETRY_TYPES.length], "    ");
+            }
+            content.append("}\n\n");
+        }
+    }
+
+    private void appendCss(StringBuilder content, String geometryType, String indentation) {
+        String color = COLORS[random.nextInt(COLORS.length)];
+        boolean complex = random.nextDouble() < settings.getComplexCssRatio();
+
+        List<String> properties = new ArrayList<>();
+        switch (geometryType) {
+            case "Polygon":
+                properties.add("fill: " + color + ";");
+                properties.add("fill-opacity: 0.5;");
+                properties.add("stroke: #FFFFFF;");
+                properties.add("stroke-width: 2;");
+                break;
+            case "Line":
+                properties.add("stroke: " + color + ";");
+                properties.add("stroke-width: " + (1 + random.nextInt(4)) + "px;");
+                if (complex) {
+                    properties.add("stroke-dasharray: 4 6;");
+                    properties.add("label-follow-line: true;");
+                    properties.add("label-repeat: 150;");
+                }
+                break;
+            default:
+                properties.add("mark: symbol(" + (random.nextBoolean() ? "circle" : "triangle") + ");");
+                properties.add("mark-size: " + (4 + random.nextInt(10)) + ";");
+                break;
+        }
+        if (complex) {
+            properties.add("label: [name];");
+            properties.add("font-family: Arial;");
+            properties.add("font-size: " + (9 + random.nextInt(5)) + "px;");
+            properties.add("font-weight: bold;");
+            properties.add("font-fill: black;");
+            properties.add("halo-color: white;");
+            properties.add("halo-radius: 1;");
+        }
+
+        content.append(indentation).append("* {\n");
+        properties.forEach(property -> content.append(indentation).append("    ").append(property).append('\n'));
+        if (geometryType.equals("Point")) {
+            content.append(indentation).append("    :mark {\n")
+                    .append(indentation).append("        fill: ").append(color).append(";\n")
+                    .append(indentation).append("    }\n");
+        }
+        content.append(indentation).append("}\n");
+    }
+
+    private static boolean isValidName(String name) {
+        return name != null && name.matches("[A-Za-z][A-Za-z0-9_-]*");
+    }
+}
@@ -0,0 +1,93 @@
+package generation.synthetic;
+
+/**
+ * Describes the shape of a generated configuration. Ratios are values between 0 and 1.
+ */
+public class SyntheticConfigSettings {
+
+    private int mapFeatureCount = 100;
+    private int styleGroupCount = 12;
+    private int maxSubclassesPerMapFeature = 3;
+    private int maxZoomRegionsPerSubclass = 2;
+
+    private double useStyleRatio = 0.9; // share of zoom regions that reference StyleGroups instead of declaring CSS
+    private double sameAsRatio = 0.1; // share of MapFeatures that reference another MapFeature
+    private int maxSameAsChainLength = 2; // how many sameAs references may follow each other
+    private double nestedStyleGroupRatio = 0.1; // share of StyleGroups that reference other StyleGroups
+    private double complexCssRatio = 0.3; // share of CSS declarations with labels and marks
+
+    public SyntheticConfigSettings() {
+    }
+
+    public int getMapFeatureCount() {
+        return mapFeatureCount;
+    }
+
+    public void setMapFeatureCount(int mapFeatureCount) {
+        this.mapFeatureCount = mapFeatureCount;
+    }
+
+    public int getStyleGroupCount() {
+        return styleGroupCount;
+    }
+
+    public void setStyleGroupCount(int styleGroupCount) {
+        this.styleGroupCount = styleGroupCount;
+    }
+
+    public int getMaxSubclassesPerMapFeature() {
+        return maxSubclassesPerMapFeature;
+    }
+
+    public void setMaxSubclassesPerMapFeature(int maxSubclassesPerMapFeature) {
+        this.maxSubclassesPerMapFeature = maxSubclassesPerMapFeature;
+    }
+
+    public int getMaxZoomRegionsPerSubclass() {
+        return maxZoomRegionsPerSubclass;
+    }
+
+    public void setMaxZoomRegionsPerSubclass(int maxZoomRegionsPerSubclass) {
+        this.maxZoomRegionsPerSubclass = maxZoomRegionsPerSubclass;
+    }
+
+    public double getUseStyleRatio() {
+        return useStyleRatio;
+    }
+
+    public void setUseStyleRatio(double useStyleRatio) {
+        this.useStyleRatio = useStyleRatio;
+    }
+
+    public double getSameAsRatio() {
+        return sameAsRatio;
+    }
+
+    public void setSameAsRatio(double sameAsRatio) {
+        this.sameAsRatio = sameAsRatio;
+    }
+
+    public int getMaxSameAsChainLength() {
+        return maxSameAsChainLength;
+    }
+
+    public void setMaxSameAsChainLength(int maxSameAsChainLength) {
+        this.maxSameAsChainLength = maxSameAsChainLength;
+    }
+
+    public double getNestedStyleGroupRatio() {
+        return nestedStyleGroupRatio;
+    }
+
+    public void setNestedStyleGroupRatio(double nestedStyleGroupRatio) {
+        this.nestedStyleGroupRatio = nestedStyleGroupRatio;
+    }
+
+    public double getComplexCssRatio() {
+        return complexCssRatio;
+    }
+
+    public void setComplexCssRatio(double complexCssRatio) {
+        this.complexCssRatio = complexCssRatio;
+    }
+}
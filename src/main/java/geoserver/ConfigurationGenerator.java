@@ -3,6 +3,8 @@ package geoserver;
 import db.DataSourceConfig;
 import geoserver.cataloginfo.CatalogInfoFactory;
 import geoserver.cataloginfo.CatalogInfoPersister;
+import geoserver.cataloginfo.bounds.ExactBoundsProvider;
+import geoserver.cataloginfo.bounds.NativeBoundsProvider;
 import geoserver.connection.ServerConnectionConfig;
 import geoserver.connection.ServerConnectionFactory;
 import logging.LoggerConfiguration;
@@ -16,13 +18,13 @@ import org.geoserver.config.impl.GeoServerImpl;
 import org.geoserver.config.util.XStreamPersister;
 import org.geoserver.config.util.XStreamPersisterFactory;
 import org.jetbrains.annotations.NotNull;
+import util.ConcurrencyHelper;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.stream.Collectors;
 
 public class ConfigurationGenerator {
 
@@ -33,9 +35,19 @@ public class ConfigurationGenerator {
 
     private GeoServer geoServer;
     private CatalogInfoFactory catalogInfoFactory;
+    private final int workerCount;
+    private NativeBoundsProvider boundsProvider = new ExactBoundsProvider();
 
     public ConfigurationGenerator(@NotNull Collection<File> sldSourceFiles) {
+        this(sldSourceFiles, 1);
+    }
+
+    /**
+     * @param workerCount The amount of FeatureTypeInfos whose bounds are retrieved from the database at the same time
+     */
+    public ConfigurationGenerator(@NotNull Collection<File> sldSourceFiles, int workerCount) {
         this.sldSourceFiles = sldSourceFiles;
+        this.workerCount = workerCount;
 
         LoggerConfiguration.muteGeoServerLogs();
 
@@ -45,6 +57,14 @@ public class ConfigurationGenerator {
         catalogInfoFactory = new CatalogInfoFactory(geoServer.getCatalog());
     }
 
+    /**
+     * @param boundsProvider The provider for the native bounds of the FeatureTypeInfos, must be thread-safe if workerCount > 1
+     */
+    public void setBoundsProvider(@NotNull NativeBoundsProvider boundsProvider) {
+        this.boundsProvider = boundsProvider;
+        catalogInfoFactory.setBoundsProvider(boundsProvider);
+    }
+
     /**
      * Creates a StyleInfo object for every sldSourceFile and saves it to a subdirectory of the targetDirectory.
      *
@@ -127,14 +147,21 @@ public class ConfigurationGenerator {
         File storeInfoFile = catalogInfoPersister.saveStoreInfo(dataStoreInfo);
         files.add(storeInfoFile);
 
-        for (File sldSourceFile : sldSourceFiles) {
-            String nameWithoutExtension = FilenameUtils.removeExtension(sldSourceFile.getName());
+        List<String> names = sldSourceFiles.stream().map(sldSourceFile -> FilenameUtils.removeExtension(sldSourceFile.getName())).collect(Collectors.toList());
+        if (workerCount > 1) {
+            // create the data store before the workers start so that all of them share it and its connection pool
+            tryInitializeDataStore((DataStoreInfo) dataStoreInfo);
+        }
+        // retrieving the bounds queries the database, the results are in the order of the names so the files stay deterministic
+        List<FeatureTypeInfo> featureTypeInfos = ConcurrencyHelper.mapInOrder(names, name -> createFeatureTypeInfoForClassName(name, dataStoreInfo, namespaceInfo, crsCode), workerCount);
+        boundsProvider.finish();
 
-            StyleInfo styleInfo = getStyleInfoForName(nameWithoutExtension, workspaceInfo);
+        for (int i = 0; i < names.size(); i++) {
+            StyleInfo styleInfo = getStyleInfoForName(names.get(i), workspaceInfo);
             File styleInfoFile = catalogInfoPersister.saveStyleInfo(styleInfo);
             files.add(styleInfoFile);
 
-            FeatureTypeInfo featureTypeInfo = createFeatureTypeInfoForClassName(nameWithoutExtension, dataStoreInfo, namespaceInfo, crsCode);
+            FeatureTypeInfo featureTypeInfo = featureTypeInfos.get(i);
             File featureTypeInfoFile = catalogInfoPersister.saveFeatureTypeInfo(featureTypeInfo);
             files.add(featureTypeInfoFile);
 
@@ -163,6 +190,14 @@ public class ConfigurationGenerator {
         Objects.requireNonNull(dataSourceConfig.getPassword(), "A password is required to access the data source.");
     }
 
+    private void tryInitializeDataStore(DataStoreInfo dataStoreInfo) {
+        try {
+            geoServer.getCatalog().getResourcePool().getDataStore(dataStoreInfo);
+        } catch (IOException e) {
+            logger.warn("Could not connect to data store {}. \n\t Cause: {}", dataStoreInfo.getName(), e.getMessage());
+        }
+    }
+
     private StyleInfo getStyleInfoForName(String name, WorkspaceInfo workspaceInfo) {
         StyleInfo styleInfo = geoServer.getCatalog().getStyleByName(name);
         if (styleInfo == null) {
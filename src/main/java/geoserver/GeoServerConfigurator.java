@@ -1,10 +1,17 @@
 package geoserver;
 
 import db.DataSourceConfig;
+import db.DataSourceFactory;
 import db.DataSourceWrapper;
 import db.DatabaseConfigurator;
+import geoserver.cataloginfo.bounds.BoundsProviderFactory;
+import geoserver.cataloginfo.bounds.BoundsStrategy;
+import geoserver.connection.ArchiveUploader;
+import geoserver.connection.DeltaUploader;
+import geoserver.connection.PooledUploader;
 import geoserver.connection.ServerConnection;
 import geoserver.connection.ServerConnectionConfig;
+import metrics.MetricsRecorder;
 import model.classification.Classification;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -17,6 +24,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 
 public class GeoServerConfigurator {
@@ -28,7 +37,13 @@ public class GeoServerConfigurator {
     private final Logger logger = LogManager.getLogger(GeoServerConfigurator.class);
     private ServerConnectionConfig serverConnectionConfig;
     private ServerConnection serverConnection;
-
+    private boolean syncUploads = false;
+    private int uploadChannels = 1;
+    private boolean archiveUploads = false;
+    private int boundsWorkers = 1;
+    private BoundsStrategy boundsStrategy = BoundsStrategy.EXACT;
+    private File boundsCacheFile;
+    private MetricsRecorder metricsRecorder = new MetricsRecorder();
 
     public static synchronized GeoServerConfigurator getInstance(ServerConnectionConfig serverConnectionConfig) {
         if (instance == null || serverConnectionConfig != instance.serverConnectionConfig) {
@@ -42,6 +57,51 @@ public class GeoServerConfigurator {
         serverConnection = new ServerConnection();
     }
 
+    /**
+     * @param syncUploads If true, only files whose content changed since the last upload are transferred to the server
+     */
+    public void setSyncUploads(boolean syncUploads) {
+        this.syncUploads = syncUploads;
+    }
+
+    /**
+     * @param uploadChannels The amount of SFTP channels that upload files concurrently, values below 2 upload over the
+     *                       single connection of the configurator
+     */
+    public void setUploadChannels(int uploadChannels) {
+        this.uploadChannels = uploadChannels;
+    }
+
+    /**
+     * @param archiveUploads If true, the files of every upload are transferred as a single archive that is extracted on the server
+     */
+    public void setArchiveUploads(boolean archiveUploads) {
+        this.archiveUploads = archiveUploads;
+    }
+
+    /**
+     * @param boundsWorkers The amount of feature types whose bounds are retrieved from the database concurrently
+     */
+    public void setBoundsWorkers(int boundsWorkers) {
+        this.boundsWorkers = boundsWorkers;
+    }
+
+    /**
+     * @param boundsStrategy  The strategy used to retrieve the bounds of the generated layers
+     * @param boundsCacheFile The file that stores the bounds, required for the CACHED strategy
+     */
+    public void setBoundsStrategy(BoundsStrategy boundsStrategy, File boundsCacheFile) {
+        this.boundsStrategy = boundsStrategy;
+        this.boundsCacheFile = boundsCacheFile;
+    }
+
+    /**
+     * @param metricsRecorder The recorder that measures the database setup, the catalog generation and the uploads
+     */
+    public void setMetricsRecorder(MetricsRecorder metricsRecorder) {
+        this.metricsRecorder = metricsRecorder;
+    }
+
     /**
      * Uploads the supplied sldFiles to the server.
      *
@@ -67,10 +127,12 @@ public class GeoServerConfigurator {
             destinationPath = Paths.get(geoServerRootPath, RELATIVE_PATH_TO_STYLE_DIRECTORY);
         }
 
+        Map<File, String> destinationPaths = new LinkedHashMap<>();
         for (File sldFile : sldFiles) {
             Path destinationFilePath = Paths.get(destinationPath.toString(), sldFile.getName());
-            serverConnection.uploadFileToServer(sldFile, destinationFilePath.toString());
+            destinationPaths.put(sldFile, destinationFilePath.toString());
         }
+        uploadFiles(destinationPaths, "sldUpload");
 
         serverConnection.disconnect();
     }
@@ -93,7 +155,11 @@ public class GeoServerConfigurator {
         ConfigurationGenerator configurationGenerator = new ConfigurationGenerator(sldFiles);
         try {
             Path tempDirectoryPath = Files.createTempDirectory("geoserver");
-            Collection<File> styleInfoFiles = configurationGenerator.createStyleInfoFiles(tempDirectoryPath.toFile(), serverConnectionConfig);
+            Collection<File> styleInfoFiles;
+            try (MetricsRecorder.Stage stage = metricsRecorder.startStage("catalogGeneration")) {
+                styleInfoFiles = configurationGenerator.createStyleInfoFiles(tempDirectoryPath.toFile(), serverConnectionConfig);
+                MetricsRecorder.countFiles(stage, styleInfoFiles);
+            }
             uploadConfigurationFiles(styleInfoFiles, tempDirectoryPath.toFile());
         } catch (IOException e) {
             logger.error("Something went wrong while creating a temporary directory. \n\t Cause: {}", e.getMessage());
@@ -124,8 +190,13 @@ public class GeoServerConfigurator {
             Objects.requireNonNull(classification, "Classification cannot be null.");
             createDatabaseLayerTables(classification, dataSourceConfig);
             Path tempDirectoryPath = Files.createTempDirectory("geoserver");
-            ConfigurationGenerator configurationGenerator = new ConfigurationGenerator(sldFiles);
-            Collection<File> configurationFiles = configurationGenerator.createConfigurationFiles(dataSourceConfig, serverConnectionConfig, tempDirectoryPath.toFile());
+            ConfigurationGenerator configurationGenerator = new ConfigurationGenerator(sldFiles, boundsWorkers);
+            configurationGenerator.setBoundsProvider(BoundsProviderFactory.createBoundsProvider(boundsStrategy, dataSourceConfig, boundsCacheFile));
+            Collection<File> configurationFiles;
+            try (MetricsRecorder.Stage stage = metricsRecorder.startStage("catalogGeneration")) {
+                configurationFiles = configurationGenerator.createConfigurationFiles(dataSourceConfig, serverConnectionConfig, tempDirectoryPath.toFile());
+                MetricsRecorder.countFiles(stage, configurationFiles);
+            }
             uploadConfigurationFiles(configurationFiles, tempDirectoryPath.toFile());
         } catch (SQLException e) {
             logger.error("Something went wrong while creating tables for the classification. \n\t Cause: {}", e.getMessage());
@@ -135,12 +206,77 @@ public class GeoServerConfigurator {
     }
 
     private void uploadConfigurationFiles(Collection<File> configurationFiles, File directoryRoot) {
+        Map<File, String> destinationPaths = new LinkedHashMap<>();
         for (File file : configurationFiles) {
-            assert serverConnection.isConnected();
-
             String pathRelativeToRoot = getPathRelativeToRoot(file.getAbsolutePath(), directoryRoot.getAbsolutePath());
             String pathOnGeoServer = Paths.get(serverConnectionConfig.getPath(), pathRelativeToRoot).toString();
-            serverConnection.uploadFileToServer(file, pathOnGeoServer);
+            destinationPaths.put(file, pathOnGeoServer);
+        }
+        uploadFiles(destinationPaths, "catalogUpload");
+    }
+
+    /**
+     * Uploads every file to its destination path, the current connection is used to read the sync manifest and for
+     * sequential uploads.
+     *
+     * @param stageName The name under which the upload is recorded in the metrics
+     */
+    private void uploadFiles(Map<File, String> destinationPaths, String stageName) {
+        assert serverConnection.isConnected();
+
+        try (MetricsRecorder.Stage stage = metricsRecorder.startStage(stageName)) {
+            Map<File, Boolean> uploadResults = uploadFiles(destinationPaths);
+            stage.count("files", destinationPaths.size());
+            stage.count("uploadedFiles", uploadResults.values().stream().filter(uploaded -> uploaded).count());
+            stage.count("uploadedBytes", uploadResults.entrySet().stream().filter(Map.Entry::getValue).mapToLong(uploadResult -> uploadResult.getKey().length()).sum());
+        }
+    }
+
+    /**
+     * @return whether the upload succeeded for every file that was transferred, unchanged files skipped by a sync are not contained
+     */
+    private Map<File, Boolean> uploadFiles(Map<File, String> destinationPaths) {
+
+        DeltaUploader deltaUploader = null;
+        Map<File, String> filesToUpload = destinationPaths;
+        if (syncUploads) {
+            deltaUploader = new DeltaUploader(serverConnection, serverConnectionConfig.getPath());
+            filesToUpload = deltaUploader.selectChangedFiles(destinationPaths);
+        }
+
+        Map<File, Boolean> uploadResults = new LinkedHashMap<>();
+        if (archiveUploads && filesToUpload.size() > 1 && new ArchiveUploader(serverConnection, serverConnectionConfig.getPath()).upload(filesToUpload)) {
+            filesToUpload.keySet().forEach(file -> uploadResults.put(file, true));
+        } else if (uploadChannels > 1 && filesToUpload.size() > 1 && uploadConcurrently(filesToUpload, uploadResults)) {
+            logger.debug("Uploaded {} files over {} channels.", filesToUpload.size(), uploadChannels);
+        } else {
+            for (Map.Entry<File, String> fileToUpload : filesToUpload.entrySet()) {
+                uploadResults.put(fileToUpload.getKey(), serverConnection.uploadFileToServer(fileToUpload.getKey(), fileToUpload.getValue()));
+            }
+        }
+
+        if (deltaUploader != null) {
+            for (Map.Entry<File, Boolean> uploadResult : uploadResults.entrySet()) {
+                deltaUploader.recordUpload(filesToUpload.get(uploadResult.getKey()), uploadResult.getValue());
+            }
+            deltaUploader.finish();
+        }
+        return uploadResults;
+    }
+
+    /**
+     * @return false if no channel of the pool could be opened, the files have to be uploaded sequentially then
+     */
+    private boolean uploadConcurrently(Map<File, String> filesToUpload, Map<File, Boolean> uploadResults) {
+        PooledUploader pooledUploader = new PooledUploader(serverConnectionConfig, uploadChannels);
+        if (!pooledUploader.connect()) {
+            return false;
+        }
+        try {
+            uploadResults.putAll(pooledUploader.upload(filesToUpload));
+            return true;
+        } finally {
+            pooledUploader.disconnect();
         }
     }
 
@@ -153,10 +289,13 @@ public class GeoServerConfigurator {
     }
 
     private void createDatabaseLayerTables(@NotNull Classification classification, DataSourceConfig dataSourceConfig) throws SQLException {
-        DataSourceWrapper dataSourceWrapper = new DataSourceWrapper(dataSourceConfig);
+        DataSourceWrapper dataSourceWrapper = DataSourceFactory.getSharedDataSourceWrapper(dataSourceConfig);
 
-        DatabaseConfigurator databaseConfigurator = new DatabaseConfigurator(dataSourceWrapper);
-        databaseConfigurator.createTablesForClassification(classification);
+        try (MetricsRecorder.Stage stage = metricsRecorder.startStage("dbSetup")) {
+            DatabaseConfigurator databaseConfigurator = new DatabaseConfigurator(dataSourceWrapper);
+            databaseConfigurator.createTablesForClassification(classification, true);
+            stage.count("classes", classification.getClasses().size());
+        }
     }
 
     private void assertServerConnectionConfig(ServerConnectionConfig serverConnectionConfig) throws NullPointerException {
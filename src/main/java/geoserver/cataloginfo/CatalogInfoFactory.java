@@ -1,5 +1,7 @@
 package geoserver.cataloginfo;
 
+import geoserver.cataloginfo.bounds.ExactBoundsProvider;
+import geoserver.cataloginfo.bounds.NativeBoundsProvider;
 import geoserver.cataloginfo.wrapper.*;
 import org.geoserver.catalog.*;
 import org.geoserver.catalog.impl.*;
@@ -8,11 +10,16 @@ import org.jetbrains.annotations.Nullable;
 public class CatalogInfoFactory {
 
     private final Catalog catalog;
+    private NativeBoundsProvider boundsProvider = new ExactBoundsProvider();
 
     public CatalogInfoFactory(Catalog catalog) {
         this.catalog = catalog;
     }
 
+    public void setBoundsProvider(NativeBoundsProvider boundsProvider) {
+        this.boundsProvider = boundsProvider;
+    }
+
     public WorkspaceInfo createWorkspaceInfo(String name) {
         WorkspaceInfoImpl workspaceInfoImpl = new WorkspaceInfoImpl();
         WorkspaceInfoWrapper workspaceInfoWrapper = new WorkspaceInfoWrapper(workspaceInfoImpl, name);
@@ -35,7 +42,7 @@ public class CatalogInfoFactory {
         FeatureTypeInfoImpl featureTypeInfoImpl = new FeatureTypeInfoImpl(catalog);
         featureTypeInfoImpl.setSRS(crsCode);
         CatalogBuilder catalogBuilder = new CatalogBuilder(catalog);
-        FeatureTypeInfoWrapper featureTypeInfoWrapper = new FeatureTypeInfoWrapper(featureTypeInfoImpl, nativeName, storeInfo, namespaceInfo, catalogBuilder);
+        FeatureTypeInfoWrapper featureTypeInfoWrapper = new FeatureTypeInfoWrapper(featureTypeInfoImpl, nativeName, storeInfo, namespaceInfo, catalogBuilder, boundsProvider);
         return featureTypeInfoWrapper.getFeatureTypeInfo();
     }
 
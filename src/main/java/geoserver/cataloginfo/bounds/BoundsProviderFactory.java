@@ -0,0 +1,39 @@
+package geoserver.cataloginfo.bounds;
+
+import db.DataSourceConfig;
+import db.DataSourceFactory;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+
+public class BoundsProviderFactory {
+
+    public static final String DEFAULT_CACHE_FILE_NAME = ".ohdm-bounds-cache.json";
+
+    /**
+     * @param strategy         The strategy that defines how the bounds are retrieved
+     * @param dataSourceConfig The config of the database that contains the tables of the feature types
+     * @param cacheFile        The file that stores the bounds, required for the CACHED strategy. The generator places
+     *                         {@link #DEFAULT_CACHE_FILE_NAME} in the output directory if no file is configured.
+     */
+    public static NativeBoundsProvider createBoundsProvider(BoundsStrategy strategy, DataSourceConfig dataSourceConfig, @Nullable File cacheFile) {
+        switch (strategy) {
+            case ESTIMATED:
+                return new EstimatedBoundsProvider(createTableStatistics(dataSourceConfig), new ExactBoundsProvider());
+            case FIXED:
+                return new FixedBoundsProvider();
+            case CACHED:
+                if (cacheFile == null) {
+                    throw new IllegalArgumentException("The CACHED bounds strategy requires a cache file.");
+                }
+                return new CachedBoundsProvider(new ExactBoundsProvider(), createTableStatistics(dataSourceConfig), cacheFile);
+            case EXACT:
+            default:
+                return new ExactBoundsProvider();
+        }
+    }
+
+    private static TableStatistics createTableStatistics(DataSourceConfig dataSourceConfig) {
+        return new TableStatistics(DataSourceFactory.getSharedDataSourceWrapper(dataSourceConfig), dataSourceConfig.getSchema());
+    }
+}
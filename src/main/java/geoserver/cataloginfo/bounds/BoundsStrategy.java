@@ -0,0 +1,23 @@
+package geoserver.cataloginfo.bounds;
+
+/**
+ * Defines how the native bounds of a feature type are retrieved.
+ */
+public enum BoundsStrategy {
+    /**
+     * Computes the exact extent of the table, which scans the whole table.
+     */
+    EXACT,
+    /**
+     * Uses the extent estimated by PostGIS from the planner statistics, falls back to EXACT if there are no statistics.
+     */
+    ESTIMATED,
+    /**
+     * Uses the area of validity of the native CRS without querying the database.
+     */
+    FIXED,
+    /**
+     * Reuses the exact extent of a previous run as long as the estimated row count of the table did not change.
+     */
+    CACHED
+}
@@ -0,0 +1,113 @@
+package geoserver.cataloginfo.bounds;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.geoserver.catalog.CatalogBuilder;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persists the bounds retrieved by the delegate in a cache file and reuses them in later runs as long as the row count
+ * estimated by the planner did not change.
+ */
+public class CachedBoundsProvider implements NativeBoundsProvider {
+
+    private static final Type CACHE_TYPE = new TypeToken<Map<String, CacheEntry>>() {
+    }.getType();
+
+    private final Logger logger = LogManager.getLogger(CachedBoundsProvider.class);
+
+    private final NativeBoundsProvider delegate;
+    private final TableStatistics tableStatistics;
+    private final File cacheFile;
+    private final Map<String, CacheEntry> cache;
+
+    private static class CacheEntry {
+        private long rowCount;
+        private double minX;
+        private double minY;
+        private double maxX;
+        private double maxY;
+
+        private CacheEntry(long rowCount, ReferencedEnvelope envelope) {
+            this.rowCount = rowCount;
+            this.minX = envelope.getMinX();
+            this.minY = envelope.getMinY();
+            this.maxX = envelope.getMaxX();
+            this.maxY = envelope.getMaxY();
+        }
+    }
+
+    public CachedBoundsProvider(NativeBoundsProvider delegate, TableStatistics tableStatistics, File cacheFile) {
+        this.delegate = delegate;
+        this.tableStatistics = tableStatistics;
+        this.cacheFile = cacheFile;
+        this.cache = new ConcurrentHashMap<>(readCache());
+    }
+
+    @Override
+    public ReferencedEnvelope getNativeBounds(FeatureTypeInfo featureTypeInfo, CatalogBuilder catalogBuilder) throws Exception {
+        String key = featureTypeInfo.getNativeName() + "@" + featureTypeInfo.getSRS();
+        long rowCount = getEstimatedRowCount(featureTypeInfo.getNativeName());
+
+        CacheEntry cacheEntry = cache.get(key);
+        if (rowCount >= 0 && cacheEntry != null && cacheEntry.rowCount == rowCount) {
+            return new ReferencedEnvelope(cacheEntry.minX, cacheEntry.maxX, cacheEntry.minY, cacheEntry.maxY, featureTypeInfo.getNativeCRS());
+        }
+
+        ReferencedEnvelope bounds = delegate.getNativeBounds(featureTypeInfo, catalogBuilder);
+        if (rowCount >= 0 && bounds != null && !bounds.isNull()) {
+            cache.put(key, new CacheEntry(rowCount, bounds));
+        }
+        return bounds;
+    }
+
+    /**
+     * Writes the cache file.
+     */
+    @Override
+    public void finish() {
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        try {
+            Files.write(cacheFile.toPath(), gson.toJson(new TreeMap<>(cache), CACHE_TYPE).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.error("Could not write the bounds cache to {}. \n\t Cause: {}", cacheFile.getAbsolutePath(), e.getMessage());
+        }
+    }
+
+    private long getEstimatedRowCount(String tableName) {
+        try {
+            return tableStatistics.getEstimatedRowCount(tableName);
+        } catch (SQLException e) {
+            logger.warn("Could not estimate the row count of {}. Its bounds are not cached. \n\t Cause: {}", tableName, e.getMessage());
+            return -1;
+        }
+    }
+
+    private Map<String, CacheEntry> readCache() {
+        if (!cacheFile.exists()) {
+            return new TreeMap<>();
+        }
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(cacheFile), StandardCharsets.UTF_8)) {
+            Map<String, CacheEntry> cachedEntries = new Gson().fromJson(reader, CACHE_TYPE);
+            return cachedEntries != null ? cachedEntries : new TreeMap<>();
+        } catch (IOException | JsonParseException e) {
+            logger.warn("Could not read the bounds cache {}. All bounds will be retrieved again. \n\t Cause: {}", cacheFile.getAbsolutePath(), e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package geoserver.cataloginfo.bounds;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.geoserver.catalog.CatalogBuilder;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+
+import java.sql.SQLException;
+
+/**
+ * Uses the extent that PostGIS estimates from the planner statistics (ST_EstimatedExtent) instead of scanning the table.
+ * Tables without statistics fall back to the fallback provider.
+ */
+public class EstimatedBoundsProvider implements NativeBoundsProvider {
+
+    private final Logger logger = LogManager.getLogger(EstimatedBoundsProvider.class);
+
+    private final TableStatistics tableStatistics;
+    private final NativeBoundsProvider fallback;
+
+    public EstimatedBoundsProvider(TableStatistics tableStatistics, NativeBoundsProvider fallback) {
+        this.tableStatistics = tableStatistics;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public ReferencedEnvelope getNativeBounds(FeatureTypeInfo featureTypeInfo, CatalogBuilder catalogBuilder) throws Exception {
+        try {
+            ReferencedEnvelope estimatedExtent = tableStatistics.getEstimatedExtent(featureTypeInfo.getNativeName(), featureTypeInfo.getNativeCRS());
+            if (estimatedExtent != null) {
+                return estimatedExtent;
+            }
+        } catch (SQLException e) {
+            // older PostGIS versions throw instead of returning null if there are no statistics
+            logger.debug("Could not estimate extent of {}. \n\t Cause: {}", featureTypeInfo.getNativeName(), e.getMessage());
+        }
+
+        logger.info("No statistics for {}, using the fallback bounds.", featureTypeInfo.getNativeName());
+        return fallback.getNativeBounds(featureTypeInfo, catalogBuilder);
+    }
+}
@@ -0,0 +1,13 @@
+package geoserver.cataloginfo.bounds;
+
+import org.geoserver.catalog.CatalogBuilder;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+
+public class ExactBoundsProvider implements NativeBoundsProvider {
+
+    @Override
+    public ReferencedEnvelope getNativeBounds(FeatureTypeInfo featureTypeInfo, CatalogBuilder catalogBuilder) throws Exception {
+        return catalogBuilder.getNativeBounds(featureTypeInfo);
+    }
+}
@@ -0,0 +1,34 @@
+package geoserver.cataloginfo.bounds;
+
+import org.geoserver.catalog.CatalogBuilder;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.opengis.geometry.Envelope;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.TransformException;
+
+/**
+ * Uses the area of validity of the native CRS as bounds of every feature type, e.g. the whole world for EPSG:3857.
+ */
+public class FixedBoundsProvider implements NativeBoundsProvider {
+
+    // the latitudes covered by web mercator, used if the CRS does not define its area of validity
+    private static final ReferencedEnvelope WORLD = new ReferencedEnvelope(-180, 180, -85.0511, 85.0511, DefaultGeographicCRS.WGS84);
+
+    @Override
+    public ReferencedEnvelope getNativeBounds(FeatureTypeInfo featureTypeInfo, CatalogBuilder catalogBuilder) throws TransformException, FactoryException {
+        CoordinateReferenceSystem nativeCRS = featureTypeInfo.getNativeCRS();
+        if (nativeCRS == null) {
+            return null;
+        }
+
+        Envelope envelope = CRS.getEnvelope(nativeCRS);
+        if (envelope != null) {
+            return ReferencedEnvelope.reference(envelope);
+        }
+        return WORLD.transform(nativeCRS, true);
+    }
+}
@@ -0,0 +1,24 @@
+package geoserver.cataloginfo.bounds;
+
+import org.geoserver.catalog.CatalogBuilder;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+
+/**
+ * Provides the native bounds of feature types, implementations have to be thread-safe.
+ */
+public interface NativeBoundsProvider {
+
+    /**
+     * @param featureTypeInfo The feature type whose native name and native CRS are set
+     * @param catalogBuilder  The builder that can be used to compute the exact bounds
+     * @return the bounds in the native CRS of the feature type or null if they cannot be determined
+     */
+    ReferencedEnvelope getNativeBounds(FeatureTypeInfo featureTypeInfo, CatalogBuilder catalogBuilder) throws Exception;
+
+    /**
+     * Called after the bounds of all feature types were retrieved.
+     */
+    default void finish() {
+    }
+}
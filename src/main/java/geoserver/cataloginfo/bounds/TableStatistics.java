@@ -0,0 +1,64 @@
+package geoserver.cataloginfo.bounds;
+
+import db.DataSourceWrapper;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads the planner statistics of the tables, which is cheap compared to scanning the tables.
+ */
+public class TableStatistics {
+
+    private static final String GEOMETRY_COLUMN = "geom";
+
+    // the functions are qualified because the connections use the schema of the config, but PostGIS is installed in public
+    private static final String ESTIMATED_EXTENT_SQL = "SELECT public.ST_XMin(extent), public.ST_YMin(extent), public.ST_XMax(extent), public.ST_YMax(extent) " +
+            "FROM (SELECT public.ST_EstimatedExtent(?, ?, ?) AS extent) AS estimation";
+    private static final String ESTIMATED_ROW_COUNT_SQL = "SELECT c.reltuples::bigint FROM pg_class c " +
+            "JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = ? AND c.relname = ?";
+
+    private final DataSourceWrapper dataSourceWrapper;
+    private final String schema;
+
+    public TableStatistics(DataSourceWrapper dataSourceWrapper, String schema) {
+        this.dataSourceWrapper = dataSourceWrapper;
+        this.schema = schema;
+    }
+
+    /**
+     * @return the extent estimated by PostGIS or null if the table has no statistics yet
+     */
+    public ReferencedEnvelope getEstimatedExtent(String tableName, CoordinateReferenceSystem crs) throws SQLException {
+        try (Connection connection = dataSourceWrapper.getConnection();
+             PreparedStatement statement = connection.prepareStatement(ESTIMATED_EXTENT_SQL)) {
+            statement.setString(1, schema);
+            statement.setString(2, tableName);
+            statement.setString(3, GEOMETRY_COLUMN);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next() || resultSet.getObject(1) == null) {
+                    return null;
+                }
+                return new ReferencedEnvelope(resultSet.getDouble(1), resultSet.getDouble(3), resultSet.getDouble(2), resultSet.getDouble(4), crs);
+            }
+        }
+    }
+
+    /**
+     * @return the row count estimated by the planner or -1 if the table does not exist
+     */
+    public long getEstimatedRowCount(String tableName) throws SQLException {
+        try (Connection connection = dataSourceWrapper.getConnection();
+             PreparedStatement statement = connection.prepareStatement(ESTIMATED_ROW_COUNT_SQL)) {
+            statement.setString(1, schema);
+            statement.setString(2, tableName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : -1;
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package geoserver.cataloginfo.wrapper;
 
+import geoserver.cataloginfo.bounds.ExactBoundsProvider;
+import geoserver.cataloginfo.bounds.NativeBoundsProvider;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.geoserver.catalog.*;
@@ -18,6 +20,10 @@ public class FeatureTypeInfoWrapper {
     private FeatureTypeInfo featureTypeInfo;
 
     public FeatureTypeInfoWrapper(FeatureTypeInfoImpl featureTypeInfoImpl, String nativeName, StoreInfo dataStore, NamespaceInfo namespace, CatalogBuilder catalogBuilder) {
+        this(featureTypeInfoImpl, nativeName, dataStore, namespace, catalogBuilder, new ExactBoundsProvider());
+    }
+
+    public FeatureTypeInfoWrapper(FeatureTypeInfoImpl featureTypeInfoImpl, String nativeName, StoreInfo dataStore, NamespaceInfo namespace, CatalogBuilder catalogBuilder, NativeBoundsProvider boundsProvider) {
         featureTypeInfoImpl.setId(generateID());
         featureTypeInfoImpl.setStore(dataStore);
         featureTypeInfoImpl.setNamespace(namespace);
@@ -30,16 +36,16 @@ public class FeatureTypeInfoWrapper {
         featureTypeInfo = featureTypeInfoImpl;
 
         trySetNativeCRS(DEFAULT_CRS);
-        trySetBounds(catalogBuilder);
+        trySetBounds(catalogBuilder, boundsProvider);
     }
 
     private static String generateID() {
         return "FeatureTypeInfoImpl--" + UUID.randomUUID().toString();
     }
 
-    private void trySetBounds(CatalogBuilder catalogBuilder) {
+    private void trySetBounds(CatalogBuilder catalogBuilder, NativeBoundsProvider boundsProvider) {
         try {
-            ReferencedEnvelope nativeBounds = catalogBuilder.getNativeBounds(featureTypeInfo);
+            ReferencedEnvelope nativeBounds = boundsProvider.getNativeBounds(featureTypeInfo, catalogBuilder);
             ReferencedEnvelope latLonBounds = catalogBuilder.getLatLonBounds(nativeBounds, featureTypeInfo.getNativeCRS());
             featureTypeInfo.setNativeBoundingBox(nativeBounds);
             featureTypeInfo.setLatLonBoundingBox(latLonBounds);
@@ -0,0 +1,126 @@
+package geoserver.connection;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Transfers many files in a single upload: the files are packed into a gzip compressed tar archive, which is uploaded
+ * to the remote root directory and extracted there over an SSH exec channel. This requires tar on the server.
+ */
+public class ArchiveUploader {
+
+    private static final long EXTRACTION_TIMEOUT_SECONDS = 300;
+    private static final long CLEANUP_TIMEOUT_SECONDS = 30;
+
+    private final Logger logger = LogManager.getLogger(ArchiveUploader.class);
+
+    private final ServerConnection serverConnection;
+    private final String remoteRootPath;
+
+    /**
+     * @param serverConnection The connected ServerConnection used for the upload and the extraction
+     * @param remoteRootPath   The remote directory in which the archive is extracted
+     */
+    public ArchiveUploader(ServerConnection serverConnection, String remoteRootPath) {
+        this.serverConnection = serverConnection;
+        String normalizedRootPath = FilenameUtils.normalizeNoEndSeparator(remoteRootPath, true);
+        this.remoteRootPath = normalizedRootPath != null ? normalizedRootPath : FilenameUtils.separatorsToUnix(remoteRootPath);
+    }
+
+    /**
+     * Uploads all files as a single archive.
+     *
+     * @param destinationPaths The remote destination path for every local file, all of them have to be inside the remote root
+     * @return true if the archive was uploaded and extracted, false if the files have to be uploaded individually
+     */
+    public boolean upload(Map<File, String> destinationPaths) {
+        if (!serverConnection.isUnixSystem()) {
+            logger.warn("Archive uploads require a unix server. Uploading files individually.");
+            return false;
+        }
+
+        Map<String, File> entries = new LinkedHashMap<>();
+        for (Map.Entry<File, String> destinationPath : destinationPaths.entrySet()) {
+            String entryName = getEntryName(destinationPath.getValue());
+            if (entryName == null) {
+                logger.warn("{} is outside of {}. Uploading files individually.", destinationPath.getValue(), remoteRootPath);
+                return false;
+            }
+            entries.put(entryName, destinationPath.getKey());
+        }
+
+        File archive = null;
+        try {
+            archive = File.createTempFile("ohdm-upload", ".tar.gz");
+            writeArchive(entries, archive);
+            logger.info("Uploading {} files as archive of {} bytes.", entries.size(), archive.length());
+
+            String remoteArchivePath = Paths.get(remoteRootPath, archive.getName()).toString();
+            if (!serverConnection.uploadFileToServer(archive, remoteArchivePath)) {
+                return false;
+            }
+
+            String quotedArchivePath = quote(FilenameUtils.separatorsToUnix(remoteArchivePath));
+            String extractCommand = String.format("tar -xzf %1$s -C %2$s && rm -f %1$s", quotedArchivePath, quote(remoteRootPath));
+            if (serverConnection.executeCommand(extractCommand, EXTRACTION_TIMEOUT_SECONDS)) {
+                return true;
+            }
+
+            // the archive is only removed by the extraction command if it succeeded
+            if (!serverConnection.executeCommand("rm -f " + quotedArchivePath, CLEANUP_TIMEOUT_SECONDS)) {
+                logger.warn("Could not remove the archive {} from the server.", remoteArchivePath);
+            }
+            return false;
+        } catch (IOException e) {
+            logger.error("Could not create the archive for the upload. \n\t Cause: {}", e.getMessage());
+            return false;
+        } finally {
+            if (archive != null && !archive.delete()) {
+                archive.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Writes the files into a gzip compressed tar archive.
+     *
+     * @param entries The local file for every entry name, entry names are relative unix paths
+     */
+    static void writeArchive(Map<String, File> entries, File archive) throws IOException {
+        try (TarArchiveOutputStream tarOutputStream = new TarArchiveOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(archive))))) {
+            tarOutputStream.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            for (Map.Entry<String, File> entry : entries.entrySet()) {
+                TarArchiveEntry tarEntry = new TarArchiveEntry(entry.getValue(), entry.getKey());
+                tarOutputStream.putArchiveEntry(tarEntry);
+                Files.copy(entry.getValue().toPath(), tarOutputStream);
+                tarOutputStream.closeArchiveEntry();
+            }
+        }
+    }
+
+    /**
+     * @return the destination path relative to the remote root or null if it is not inside of it
+     */
+    private String getEntryName(String destinationPath) {
+        String root = remoteRootPath.endsWith("/") ? remoteRootPath : remoteRootPath + "/";
+        String path = FilenameUtils.normalize(FilenameUtils.separatorsToUnix(destinationPath), true);
+        if (path == null || !path.startsWith(root)) {
+            return null;
+        }
+        return path.substring(root.length());
+    }
+
+    private static String quote(String argument) {
+        return "'" + argument.replace("'", "'\\''") + "'";
+    }
+}
@@ -0,0 +1,204 @@
+package geoserver.connection;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import util.HashHelper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Uploads files through a connected ServerConnection but skips files whose content did not change since they were last uploaded.
+ * <p>
+ * SFTP cannot compute checksums on the server, so the size and checksum of every uploaded file are kept in a sidecar manifest
+ * in the remote root directory. A file is skipped if its checksum matches the manifest and the remote file still has the
+ * recorded size, so that files which were deleted or replaced on the server are uploaded again.
+ */
+public class DeltaUploader {
+
+    public static final String MANIFEST_FILE_NAME = ".ohdm-upload-manifest.json";
+
+    private final Logger logger = LogManager.getLogger(DeltaUploader.class);
+
+    private final ServerConnection serverConnection;
+    private final String manifestPath;
+    private final UploadManifest manifest;
+    // checksums of the changed files until their upload is recorded
+    private final Map<String, Entry> pendingEntries = new HashMap<>();
+
+    private int uploadedFiles = 0;
+    private long uploadedBytes = 0;
+    private int skippedFiles = 0;
+    private long skippedBytes = 0;
+
+    private static class UploadManifest {
+        private Map<String, Entry> files = new TreeMap<>();
+    }
+
+    private static class Entry {
+        private long size;
+        private String checksum;
+
+        private Entry(long size, String checksum) {
+            this.size = size;
+            this.checksum = checksum;
+        }
+    }
+
+    /**
+     * Reads the manifest from the remote root directory, the serverConnection has to be connected.
+     *
+     * @param serverConnection The connection used for all uploads
+     * @param remoteRootPath   The remote directory in which the manifest is stored
+     */
+    public DeltaUploader(ServerConnection serverConnection, String remoteRootPath) {
+        this.serverConnection = serverConnection;
+        this.manifestPath = Paths.get(remoteRootPath, MANIFEST_FILE_NAME).toString();
+        this.manifest = readRemoteManifest();
+    }
+
+    /**
+     * Uploads the localFile unless the remote file at destinationPath already has the same content.
+     *
+     * @return true if the file was uploaded or skipped, false if the upload failed
+     */
+    public boolean upload(File localFile, String destinationPath) {
+        if (!hasChanged(localFile, destinationPath)) {
+            return true;
+        }
+
+        boolean uploaded = serverConnection.uploadFileToServer(localFile, destinationPath);
+        recordUpload(destinationPath, uploaded);
+        return uploaded;
+    }
+
+    /**
+     * Selects the files that have to be uploaded, the caller is responsible for uploading them and reporting the result
+     * via {@link #recordUpload(String, boolean)}.
+     *
+     * @param destinationPaths The remote destination path for every local file
+     * @return the entries of destinationPaths whose content changed
+     */
+    public Map<File, String> selectChangedFiles(Map<File, String> destinationPaths) {
+        Map<File, String> changedFiles = new LinkedHashMap<>();
+        destinationPaths.forEach((localFile, destinationPath) -> {
+            if (hasChanged(localFile, destinationPath)) {
+                changedFiles.put(localFile, destinationPath);
+            }
+        });
+        return changedFiles;
+    }
+
+    /**
+     * Updates the manifest after a file returned by {@link #selectChangedFiles(Map)} was uploaded.
+     */
+    public synchronized void recordUpload(String destinationPath, boolean uploaded) {
+        String key = FilenameUtils.separatorsToUnix(destinationPath);
+        Entry entry = pendingEntries.remove(key);
+        if (uploaded && entry != null) {
+            manifest.files.put(key, entry);
+            uploadedFiles++;
+            uploadedBytes += entry.size;
+        } else {
+            manifest.files.remove(key);
+        }
+    }
+
+    private boolean hasChanged(File localFile, String destinationPath) {
+        String key = FilenameUtils.separatorsToUnix(destinationPath);
+        long size = localFile.length();
+        String checksum;
+        try {
+            checksum = checksumOf(localFile);
+        } catch (IOException e) {
+            logger.warn("Could not compute checksum of {}. Uploading it anyway. \n\t Cause: {}", localFile, e.getMessage());
+            return true;
+        }
+
+        Entry entry = manifest.files.get(key);
+        if (entry != null && entry.size == size && checksum.equals(entry.checksum)
+                && serverConnection.getRemoteFileSize(destinationPath) == size) {
+            logger.debug("Skipping unchanged file {}.", destinationPath);
+            skippedFiles++;
+            skippedBytes += size;
+            return false;
+        }
+
+        pendingEntries.put(key, new Entry(size, checksum));
+        return true;
+    }
+
+    /**
+     * Writes the updated manifest to the server and logs how many files were skipped.
+     */
+    public void finish() {
+        try {
+            File localManifest = File.createTempFile("ohdm-upload-manifest", ".json");
+            try {
+                Gson gson = new GsonBuilder().setPrettyPrinting().create();
+                Files.write(localManifest.toPath(), gson.toJson(manifest).getBytes(StandardCharsets.UTF_8));
+                serverConnection.uploadFileToServer(localManifest, manifestPath);
+            } finally {
+                Files.deleteIfExists(localManifest.toPath());
+            }
+        } catch (IOException e) {
+            logger.error("Could not write the upload manifest. The next upload will transfer all files. \n\t Cause: {}", e.getMessage());
+        }
+
+        logger.info("Uploaded {} files ({} bytes), skipped {} unchanged files ({} bytes).", uploadedFiles, uploadedBytes, skippedFiles, skippedBytes);
+    }
+
+    public int getUploadedFiles() {
+        return uploadedFiles;
+    }
+
+    public int getSkippedFiles() {
+        return skippedFiles;
+    }
+
+    public long getSkippedBytes() {
+        return skippedBytes;
+    }
+
+    private UploadManifest readRemoteManifest() {
+        if (serverConnection.getRemoteFileSize(manifestPath) < 0) {
+            logger.info("No upload manifest found on the server. All files will be uploaded.");
+            return new UploadManifest();
+        }
+
+        try {
+            File localManifest = File.createTempFile("ohdm-upload-manifest", ".json");
+            try {
+                if (!serverConnection.downloadFileFromServer(manifestPath, localManifest)) {
+                    return new UploadManifest();
+                }
+                String json = new String(Files.readAllBytes(localManifest.toPath()), StandardCharsets.UTF_8);
+                UploadManifest uploadManifest = new Gson().fromJson(json, UploadManifest.class);
+                if (uploadManifest == null || uploadManifest.files == null) {
+                    return new UploadManifest();
+                }
+                return uploadManifest;
+            } finally {
+                Files.deleteIfExists(localManifest.toPath());
+            }
+        } catch (IOException | JsonParseException e) {
+            logger.warn("Could not read the upload manifest. All files will be uploaded. \n\t Cause: {}", e.getMessage());
+            return new UploadManifest();
+        }
+    }
+
+    private static String checksumOf(File file) throws IOException {
+        return HashHelper.sha256(Files.readAllBytes(file.toPath()));
+    }
+}
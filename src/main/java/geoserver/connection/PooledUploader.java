@@ -0,0 +1,131 @@
+package geoserver.connection;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Uploads files concurrently over a pool of SFTP channels.
+ * <p>
+ * Every channel is a separate {@link ServerConnection} with its own SSH session, so that a slow transfer does not block
+ * the other channels. Uploads are queued in a bounded queue; if it is full the calling thread waits for a free channel.
+ * Failed uploads are retried, reconnecting the channel first if it lost its connection.
+ */
+public class PooledUploader {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private static final int QUEUE_CAPACITY_PER_CHANNEL = 16;
+
+    private final Logger logger = LogManager.getLogger(PooledUploader.class);
+
+    private final ServerConnectionConfig serverConnectionConfig;
+    private final int channelCount;
+    private final int maxAttempts;
+
+    private final BlockingQueue<ServerConnection> idleConnections;
+    private final List<ServerConnection> connections = new ArrayList<>();
+
+    public PooledUploader(ServerConnectionConfig serverConnectionConfig, int channelCount) {
+        this(serverConnectionConfig, channelCount, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * @param serverConnectionConfig The config used to open every channel
+     * @param channelCount           The maximum amount of files that are uploaded at the same time
+     * @param maxAttempts            How often the upload of a single file is attempted before it is reported as failed
+     */
+    public PooledUploader(ServerConnectionConfig serverConnectionConfig, int channelCount, int maxAttempts) {
+        if (channelCount < 1) {
+            throw new IllegalArgumentException("At least one channel is required to upload files.");
+        }
+        this.serverConnectionConfig = serverConnectionConfig;
+        this.channelCount = channelCount;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.idleConnections = new ArrayBlockingQueue<>(channelCount);
+    }
+
+    /**
+     * Opens the channels of the pool.
+     *
+     * @return true if at least one channel could be opened
+     */
+    public boolean connect() {
+        for (int i = 0; i < channelCount; i++) {
+            ServerConnection serverConnection = new ServerConnection();
+            if (serverConnection.connect(serverConnectionConfig)) {
+                connections.add(serverConnection);
+                idleConnections.add(serverConnection);
+            } else {
+                logger.warn("Could not open channel {} of {}.", i + 1, channelCount);
+            }
+        }
+        return !connections.isEmpty();
+    }
+
+    public void disconnect() {
+        connections.forEach(ServerConnection::disconnect);
+        connections.clear();
+        idleConnections.clear();
+    }
+
+    /**
+     * Uploads every file to its destination path and waits until all uploads are finished.
+     *
+     * @param destinationPaths The remote destination path for every local file
+     * @return whether the upload succeeded for every local file, in the iteration order of destinationPaths
+     */
+    public Map<File, Boolean> upload(Map<File, String> destinationPaths) {
+        if (connections.isEmpty()) {
+            throw new IllegalStateException("The pool has to be connected before uploading files.");
+        }
+
+        ExecutorService executorService = new ThreadPoolExecutor(connections.size(), connections.size(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(connections.size() * QUEUE_CAPACITY_PER_CHANNEL), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            Map<File, Future<Boolean>> futures = new LinkedHashMap<>();
+            destinationPaths.forEach((localFile, destinationPath) ->
+                    futures.put(localFile, executorService.submit(() -> uploadWithRetry(localFile, destinationPath))));
+
+            Map<File, Boolean> results = new LinkedHashMap<>();
+            for (Map.Entry<File, Future<Boolean>> future : futures.entrySet()) {
+                results.put(future.getKey(), future.getValue().get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for uploads.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private boolean uploadWithRetry(File localFile, String destinationPath) throws InterruptedException {
+        ServerConnection serverConnection = idleConnections.take();
+        try {
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                if (!serverConnection.isConnected() && !serverConnection.connect(serverConnectionConfig)) {
+                    continue;
+                }
+                if (serverConnection.uploadFileToServer(localFile, destinationPath)) {
+                    return true;
+                }
+                if (attempt < maxAttempts) {
+                    logger.warn("Retrying upload of {} ({}/{}).", localFile, attempt + 1, maxAttempts);
+                }
+            }
+            logger.error("Giving up upload of {} after {} attempts.", localFile, maxAttempts);
+            return false;
+        } finally {
+            idleConnections.put(serverConnection);
+        }
+    }
+}
@@ -1,19 +1,28 @@
 package geoserver.connection;
 
 import net.schmizz.sshj.SSHClient;
+import net.schmizz.sshj.connection.ConnectionException;
+import net.schmizz.sshj.connection.channel.direct.Session;
+import net.schmizz.sshj.sftp.FileAttributes;
 import net.schmizz.sshj.sftp.SFTPClient;
 import net.schmizz.sshj.transport.TransportException;
 import net.schmizz.sshj.transport.verification.PromiscuousVerifier;
 import net.schmizz.sshj.userauth.UserAuthException;
 import net.schmizz.sshj.xfer.FileSystemFile;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Security;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class ServerConnection {
 
@@ -24,13 +33,17 @@ public class ServerConnection {
 
     private boolean unixSystem = true;
 
+    // remote directories that were already created during this connection
+    private final Set<String> createdDirectories = new HashSet<>();
+
     public ServerConnection() {
         Security.addProvider(new BouncyCastleProvider());
     }
 
     public boolean connect(ServerConnectionConfig connectionConfig) {
+        createdDirectories.clear();
         sshClient = new SSHClient();
-        if (tryConnectToServer(connectionConfig.getHost())) {
+        if (tryConnectToServer(connectionConfig.getHost(), connectionConfig.getPort())) {
             if (tryAuthentication(connectionConfig.getUser(), connectionConfig.getPassword())) {
                 setUnixSystemBasedOnPath(connectionConfig.getPath());
                 SFTPClient sftp = tryCreateSFTPClient(sshClient);
@@ -59,35 +72,141 @@ public class ServerConnection {
         return tryCloseSFTPClient(sftpClient) && tryDisconnectSSHClient(sshClient);
     }
 
+    public boolean isUnixSystem() {
+        return unixSystem;
+    }
+
+    /**
+     * Executes the command in a new session on the server and waits for it to finish.
+     *
+     * @param command        The command that is executed by the shell of the server
+     * @param timeoutSeconds The maximum time to wait for the command
+     * @return true if the command finished with exit status 0
+     */
+    public boolean executeCommand(String command, long timeoutSeconds) {
+        if (!isConnected()) {
+            return false;
+        }
+
+        try (Session session = sshClient.startSession()) {
+            Session.Command sessionCommand = session.exec(command);
+
+            // stderr is read concurrently, otherwise a command that never closes it would block the timeout
+            ByteArrayOutputStream errorOutput = new ByteArrayOutputStream();
+            Thread errorReader = new Thread(() -> {
+                try {
+                    IOUtils.copy(sessionCommand.getErrorStream(), errorOutput);
+                } catch (IOException e) {
+                    logger.debug("Stopped reading the error output of command {}. \n\t Cause: {}", command, e.getMessage());
+                }
+            });
+            errorReader.setDaemon(true);
+            errorReader.start();
+
+            try {
+                sessionCommand.join(timeoutSeconds, TimeUnit.SECONDS);
+            } catch (ConnectionException e) {
+                logger.error("Command {} did not finish within {} seconds. \n\t Cause: {}", command, timeoutSeconds, e.getMessage());
+                session.close();
+                return false;
+            }
+            errorReader.join(TimeUnit.SECONDS.toMillis(1));
+
+            Integer exitStatus = sessionCommand.getExitStatus();
+            if (exitStatus == null || exitStatus != 0) {
+                logger.error("Command {} failed with exit status {}. \n\t Cause: {}", command, exitStatus, new String(errorOutput.toByteArray(), StandardCharsets.UTF_8));
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            logger.error("Could not execute command {}. \n\t Cause: {}", command, e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while waiting for command {}.", command);
+            return false;
+        }
+    }
+
     public boolean isConnected() {
         return sshClient != null && sshClient.isConnected();
     }
 
-    public void uploadFileToServer(File localFile, String destinationPath) {
+    /**
+     * @return true if the file was uploaded
+     */
+    public boolean uploadFileToServer(File localFile, String destinationPath) {
         if (sftpClient != null) {
-            tryUploadFileWithSFTPClient(localFile, destinationPath);
+            return tryUploadFileWithSFTPClient(localFile, destinationPath);
         }
+        return false;
     }
 
-    private void tryUploadFileWithSFTPClient(File file, String destinationPath) {
+    /**
+     * @return true if the remote file was downloaded to the localFile
+     */
+    public boolean downloadFileFromServer(String sourcePath, File localFile) {
+        if (sftpClient == null) {
+            return false;
+        }
+
+        String hostSystemSpecificPath = getHostSystemSpecificPath(sourcePath);
+        try {
+            sftpClient.get(hostSystemSpecificPath, new FileSystemFile(localFile.getCanonicalFile()));
+            return true;
+        } catch (IOException e) {
+            logger.error("Could not download file {} to {}. \n\t Cause: {}", hostSystemSpecificPath, localFile, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return the size of the remote file in bytes or -1 if it does not exist or cannot be accessed
+     */
+    public long getRemoteFileSize(String path) {
+        if (sftpClient == null) {
+            return -1;
+        }
+
+        String hostSystemSpecificPath = getHostSystemSpecificPath(path);
+        try {
+            FileAttributes fileAttributes = sftpClient.statExistence(hostSystemSpecificPath);
+            return fileAttributes != null ? fileAttributes.getSize() : -1;
+        } catch (IOException e) {
+            logger.warn("Could not get attributes of remote file {}. \n\t Cause: {}", hostSystemSpecificPath, e.getMessage());
+            return -1;
+        }
+    }
+
+    private boolean tryUploadFileWithSFTPClient(File file, String destinationPath) {
         String hostSystemSpecificPath = getHostSystemSpecificPath(destinationPath);
         try {
             // create parent directories of file if they dont exist
             File destinationFile = new File(hostSystemSpecificPath);
-            sftpClient.mkdirs(destinationFile.getParent());
+            String parentDirectory = destinationFile.getParent();
+            if (!createdDirectories.contains(parentDirectory)) {
+                sftpClient.mkdirs(parentDirectory);
+                createdDirectories.add(parentDirectory);
+            }
 
             FileSystemFile source = new FileSystemFile(file.getCanonicalFile());
             sftpClient.put(source, hostSystemSpecificPath);
             logger.info("Successfully uploaded {} to {}.", source.getFile(), hostSystemSpecificPath);
+            return true;
         } catch (IOException e) {
             logger.error("Could not upload file {} to {}. \n\t Cause: {}", file, hostSystemSpecificPath, e.getMessage());
+            return false;
         }
     }
 
-    private boolean tryConnectToServer(String host) {
+    private boolean tryConnectToServer(String host, int port) {
         try {
             sshClient.addHostKeyVerifier(new PromiscuousVerifier());
-            sshClient.connect(host);
+            if (port > 0) {
+                sshClient.connect(host, port);
+            } else {
+                sshClient.connect(host);
+            }
             return true;
         } catch (IOException | NullPointerException e) {
             logger.error("Could not connect to server! \n\t Cause: {}", e.getMessage());
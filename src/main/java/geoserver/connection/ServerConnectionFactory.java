@@ -33,6 +33,17 @@ public class ServerConnectionFactory {
         parameters.put("user", config.getUser());
         parameters.put("passwd", config.getPassword());
         parameters.put("dbtype", "postgis");
+
+        if (config.getPoolSize() > 0) {
+            // the data store of GeoServer and GeoTools keeps its own connection pool
+            parameters.put("max connections", config.getPoolSize());
+            parameters.put("min connections", 1);
+            parameters.put("validate connections", true);
+            parameters.put("Max connection idle time", config.getPoolIdleTimeout());
+        }
+        if (config.getFetchSize() > 0) {
+            parameters.put("fetch size", config.getFetchSize());
+        }
         return parameters;
     }
 }
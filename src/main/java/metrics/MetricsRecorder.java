@@ -0,0 +1,160 @@
+package metrics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import model.styling.MapFeature;
+import model.styling.MapFeatureSubclass;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.geotools.styling.Rule;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records wall time, CPU time, allocated bytes and object counts for the stages of a run and writes them as a JSON report.
+ * <p>
+ * Stages are measured with try-with-resources:
+ * <pre>
+ * try (MetricsRecorder.Stage stage = metricsRecorder.startStage("parse")) {
+ *     ...
+ *     stage.count("mapFeatures", mapFeatures.size());
+ * }
+ * </pre>
+ * CPU time and allocated bytes are read from the {@link ThreadMXBean} for the thread that runs the stage. The CPU time of
+ * worker threads is only contained in the CPU time of the process, which is recorded as well.
+ */
+public class MetricsRecorder {
+
+    private static final Logger logger = LogManager.getLogger(MetricsRecorder.class);
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+    private final long startTime = System.nanoTime();
+    private final List<StageMetrics> stages = new ArrayList<>();
+
+    private static class MetricsReport {
+        private long totalWallTimeMillis;
+        private List<StageMetrics> stages;
+    }
+
+    /**
+     * A running stage, its metrics are recorded when it is closed.
+     */
+    public class Stage implements AutoCloseable {
+
+        private final StageMetrics stageMetrics;
+        private final long startWallTime;
+        private final long startCpuTime;
+        private final long startProcessCpuTime;
+        private final long startAllocatedBytes;
+
+        private Stage(String name) {
+            stageMetrics = new StageMetrics(name);
+            startWallTime = System.nanoTime();
+            startCpuTime = getCurrentThreadCpuTime();
+            startProcessCpuTime = getProcessCpuTime();
+            startAllocatedBytes = getCurrentThreadAllocatedBytes();
+        }
+
+        /**
+         * Adds value to the count with the given name, e.g. the amount of MapFeatures the stage produced.
+         */
+        public void count(String name, long value) {
+            stageMetrics.getCounts().merge(name, value, Long::sum);
+        }
+
+        @Override
+        public void close() {
+            stageMetrics.setWallTimeMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startWallTime));
+            stageMetrics.setCpuTimeMillis(TimeUnit.NANOSECONDS.toMillis(getCurrentThreadCpuTime() - startCpuTime));
+            stageMetrics.setProcessCpuTimeMillis(TimeUnit.NANOSECONDS.toMillis(getProcessCpuTime() - startProcessCpuTime));
+            long allocatedBytes = getCurrentThreadAllocatedBytes();
+            stageMetrics.setAllocatedBytes(allocatedBytes < 0 || startAllocatedBytes < 0 ? -1 : allocatedBytes - startAllocatedBytes);
+
+            synchronized (stages) {
+                stages.add(stageMetrics);
+            }
+            logger.debug("Stage {} took {} ms.", stageMetrics.getName(), stageMetrics.getWallTimeMillis());
+        }
+    }
+
+    public Stage startStage(String name) {
+        return new Stage(name);
+    }
+
+    /**
+     * @return the metrics of all closed stages in the order they were closed
+     */
+    public List<StageMetrics> getStages() {
+        synchronized (stages) {
+            return new ArrayList<>(stages);
+        }
+    }
+
+    public void writeReport(File reportFile) throws IOException {
+        MetricsReport report = new MetricsReport();
+        report.totalWallTimeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        report.stages = getStages();
+
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        Files.write(reportFile.toPath(), gson.toJson(report).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Counts the MapFeatures and the rules and symbolizers they contain.
+     */
+    public static void countMapFeatures(Stage stage, Collection<MapFeature> mapFeatures) {
+        long rules = 0;
+        long symbolizers = 0;
+        for (MapFeature mapFeature : mapFeatures) {
+            for (MapFeatureSubclass subclass : mapFeature.getSubclasses()) {
+                for (Rule rule : subclass.getRules()) {
+                    rules++;
+                    symbolizers += rule.symbolizers().size();
+                }
+            }
+        }
+        stage.count("mapFeatures", mapFeatures.size());
+        stage.count("rules", rules);
+        stage.count("symbolizers", symbolizers);
+    }
+
+    /**
+     * Counts the files and their size in bytes.
+     */
+    public static void countFiles(Stage stage, Collection<File> files) {
+        stage.count("files", files.size());
+        stage.count("bytes", files.stream().mapToLong(File::length).sum());
+    }
+
+    private long getCurrentThreadCpuTime() {
+        return threadMXBean.isCurrentThreadCpuTimeSupported() ? threadMXBean.getCurrentThreadCpuTime() : 0;
+    }
+
+    private long getProcessCpuTime() {
+        if (operatingSystemMXBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) operatingSystemMXBean).getProcessCpuTime();
+        }
+        return 0;
+    }
+
+    private long getCurrentThreadAllocatedBytes() {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (allocationMXBean.isThreadAllocatedMemorySupported() && allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+                return allocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,61 @@
+package metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The measurements of a single stage of a run.
+ */
+public class StageMetrics {
+
+    private String name;
+    private long wallTimeMillis;
+    private long cpuTimeMillis; // of the thread that ran the stage
+    private long processCpuTimeMillis; // of all threads, including the workers started by the stage
+    private long allocatedBytes; // of the thread that ran the stage, -1 if not supported by the JVM
+    private Map<String, Long> counts = new LinkedHashMap<>();
+
+    StageMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getWallTimeMillis() {
+        return wallTimeMillis;
+    }
+
+    void setWallTimeMillis(long wallTimeMillis) {
+        this.wallTimeMillis = wallTimeMillis;
+    }
+
+    public long getCpuTimeMillis() {
+        return cpuTimeMillis;
+    }
+
+    void setCpuTimeMillis(long cpuTimeMillis) {
+        this.cpuTimeMillis = cpuTimeMillis;
+    }
+
+    public long getProcessCpuTimeMillis() {
+        return processCpuTimeMillis;
+    }
+
+    void setProcessCpuTimeMillis(long processCpuTimeMillis) {
+        this.processCpuTimeMillis = processCpuTimeMillis;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    void setAllocatedBytes(long allocatedBytes) {
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+}
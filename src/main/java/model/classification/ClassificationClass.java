@@ -2,31 +2,39 @@ package model.classification;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 public class ClassificationClass {
 
     private String className;
-    private Collection<String> subclassNames;
+    private List<String> subclassNames;
+    // index of subclassNames for constant time lookups
+    private Set<String> subclassNameIndex;
 
     private Collection<String> geometryTypes;
 
     public ClassificationClass(String className) {
         this.className = className;
         subclassNames = new ArrayList<>();
+        subclassNameIndex = new HashSet<>();
     }
 
     public ClassificationClass(String className, Collection<String> subclassNames) {
         this.className = className;
-        this.subclassNames = subclassNames;
+        this.subclassNames = new ArrayList<>(subclassNames);
+        this.subclassNameIndex = new HashSet<>(subclassNames);
     }
 
     public boolean hasSubClass(String subclassName) {
-        return subclassNames.contains(subclassName);
+        return subclassNameIndex.contains(subclassName);
     }
 
     public void addSubClass(String subclassName) {
-        if (!subclassNames.contains(subclassName))
+        if (subclassNameIndex.add(subclassName))
             subclassNames.add(subclassName);
     }
 
@@ -53,8 +61,11 @@ public class ClassificationClass {
         return extendedClassNames;
     }
 
+    /**
+     * @return an unmodifiable view of the subclass names, use {@link #addSubClass(String)} to add subclasses
+     */
     public Collection<String> getSubclassNames() {
-        return subclassNames;
+        return Collections.unmodifiableList(subclassNames);
     }
 
     @Override
@@ -8,30 +8,57 @@ import java.sql.Statement;
 
 public class ClassificationFactory {
 
+    public static final int DEFAULT_FETCH_SIZE = 10000;
+
+    private static final String CLASSIFICATION_QUERY = "SELECT class, subclassname FROM classification";
+
     public static Classification getDefaultClassification() {
         return OSMClassification.getOSMClassification();
     }
 
     public static Classification getClassificationFromDataSource(DataSource dataSource) throws SQLException {
+        return getClassificationFromDataSource(dataSource, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Reads the classification table with a cursor so that only fetchSize rows are held in memory at once
+     * and builds the classification while iterating over the rows.
+     *
+     * @param dataSource The data source that contains the classification table
+     * @param fetchSize  The amount of rows that are fetched from the database per round trip
+     */
+    public static Classification getClassificationFromDataSource(DataSource dataSource, int fetchSize) throws SQLException {
         Classification classification = new ClassificationImpl();
 
-        try (Connection connection = dataSource.getConnection();
-             Statement st = connection.createStatement();
-             ResultSet rs = st.executeQuery("SELECT * FROM classification")) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            // IMPORTANT: the PostgreSQL driver only uses a cursor if autocommit is disabled, otherwise it reads the whole result set
+            connection.setAutoCommit(false);
 
-            while (rs.next()) {
-                String className = rs.getString("class");
-                ClassificationClass classificationClass = classification.getClass(className);
-                if (classificationClass == null) {
-                    classificationClass = new ClassificationClass(className);
-                    classification.addClassIfAbsent(classificationClass);
-                }
+            try (Statement st = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                st.setFetchSize(fetchSize);
 
-                String subClassName = rs.getString("subclassname");
-                classificationClass.addSubClass(subClassName);
+                try (ResultSet rs = st.executeQuery(CLASSIFICATION_QUERY)) {
+                    while (rs.next()) {
+                        addRowToClassification(classification, rs.getString("class"), rs.getString("subclassname"));
+                    }
+                }
+                connection.commit();
+            } finally {
+                connection.setAutoCommit(autoCommit);
             }
         }
 
         return classification;
     }
+
+    private static void addRowToClassification(Classification classification, String className, String subClassName) {
+        ClassificationClass classificationClass = classification.getClass(className);
+        if (classificationClass == null) {
+            classificationClass = new ClassificationClass(className);
+            classification.addClassIfAbsent(classificationClass);
+        }
+
+        classificationClass.addSubClass(subClassName);
+    }
 }
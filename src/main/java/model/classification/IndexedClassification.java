@@ -0,0 +1,53 @@
+package model.classification;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Base implementation of a Classification that indexes its classes by name so that lookups don't have to scan
+ * all classes. The subclasses of a class are indexed by the ClassificationClass itself.
+ */
+public abstract class IndexedClassification implements Classification {
+
+    private final Map<String, ClassificationClass> classesByName = new LinkedHashMap<>();
+    private final Collection<String> geometryTypes;
+
+    protected IndexedClassification(Collection<String> geometryTypes) {
+        this.geometryTypes = geometryTypes;
+    }
+
+    @Override
+    public Collection<ClassificationClass> getClasses() {
+        return Collections.unmodifiableCollection(classesByName.values());
+    }
+
+    @Override
+    public ClassificationClass getClass(String className) {
+        return classesByName.get(className);
+    }
+
+    @Override
+    public Collection<String> getSubClassesForClass(ClassificationClass classificationClass) {
+        ClassificationClass matchingClass = classesByName.get(classificationClass.getClassName());
+        if (matchingClass != null) {
+            return matchingClass.getSubclassNames();
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean hasClass(ClassificationClass classificationClass) {
+        return classesByName.containsKey(classificationClass.getClassName());
+    }
+
+    @Override
+    public void addClassIfAbsent(ClassificationClass classificationClass) {
+        if (!classesByName.containsKey(classificationClass.getClassName())) {
+            classificationClass.setGeometryTypes(geometryTypes);
+            classesByName.put(classificationClass.getClassName(), classificationClass);
+        }
+    }
+}
@@ -6,62 +6,29 @@ import java.util.*;
  * Adapted version of the OSMClassification written by Thomas Schwotzer (thsc) for the OSMImportUpdate Project (Project site: https://github.com/OpenHistoricalDataMap/OSMImportUpdate).
  * For original version of the file visit https://github.com/OpenHistoricalDataMap/OSMImportUpdate/blob/master/src/osm/OSMClassification.java.
  */
-public class OSMClassification implements Classification {
+public class OSMClassification extends IndexedClassification {
     // key: class (like highway, value: list of subclasses (like primary, secondary)
     public HashMap<String, List<String>> osmFeatureClasses = new HashMap();
     public static final String UNDEFINED = "undefined";
     private static OSMClassification osmClassification = null;
 
-    private Collection<ClassificationClass> classes = new HashSet<>();
-    private final Collection<String> DEFAULT_GEOMETRY_TYPES = Arrays.asList("points", "lines", "polygons");
+    private static final Collection<String> DEFAULT_GEOMETRY_TYPES = Arrays.asList("points", "lines", "polygons");
 
     public static OSMClassification getOSMClassification() {
         if (OSMClassification.osmClassification == null) {
             OSMClassification.osmClassification = new OSMClassification();
             osmClassification.osmFeatureClasses.forEach((classname, subclassNames) -> {
                 ClassificationClass classificationClass = new ClassificationClass(classname, subclassNames);
-                classificationClass.setGeometryTypes(osmClassification.DEFAULT_GEOMETRY_TYPES);
-                osmClassification.classes.add(classificationClass);
+                osmClassification.addClassIfAbsent(classificationClass);
             });
         }
 
         return OSMClassification.osmClassification;
     }
 
-    @Override
-    public Collection<ClassificationClass> getClasses() {
-        return classes;
-    }
-
-    @Override
-    public ClassificationClass getClass(String className) {
-        return classes.stream().filter(cc -> cc.getClassName().equals(className)).findAny().orElse(null);
-    }
-
-    @Override
-    public Collection<String> getSubClassesForClass(ClassificationClass classificationClass) {
-        ClassificationClass matchingClass = classes.stream().findAny().filter(cc -> cc.equals(classificationClass)).orElse(null);
-        if (matchingClass != null) {
-            return matchingClass.getSubclassNames();
-        } else {
-            return null;
-        }
-    }
-
-    @Override
-    public boolean hasClass(ClassificationClass classificationClass) {
-        return classes.stream().findAny().filter(cc -> cc.equals(classificationClass)).isPresent();
-    }
-
-    @Override
-    public void addClassIfAbsent(ClassificationClass classificationClass) {
-        if (!classes.contains(classificationClass)) {
-            classificationClass.setGeometryTypes(DEFAULT_GEOMETRY_TYPES);
-            classes.add(classificationClass);
-        }
-    }
-
     private OSMClassification() {
+        super(DEFAULT_GEOMETRY_TYPES);
+
         List<String> subClasses = new ArrayList<>();
 
         // Aerialway
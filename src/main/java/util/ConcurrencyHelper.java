@@ -0,0 +1,55 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+public class ConcurrencyHelper {
+
+    private ConcurrencyHelper() {
+    }
+
+    /**
+     * Applies the mapper to every element of the input and returns the results in the iteration order of the input,
+     * regardless of the order in which the workers finish.
+     *
+     * @param input       The elements that should be mapped
+     * @param mapper      The function that is applied to every element, has to be thread-safe if workerCount > 1
+     * @param workerCount The amount of threads that are used; values below 2 map the elements on the calling thread
+     * @return A list containing the mapped elements in the same order as the input
+     */
+    public static <T, R> List<R> mapInOrder(Collection<T> input, Function<T, R> mapper, int workerCount) {
+        List<R> results = new ArrayList<>(input.size());
+        if (workerCount < 2 || input.size() < 2) {
+            input.forEach(element -> results.add(mapper.apply(element)));
+            return results;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(workerCount, input.size()));
+        try {
+            List<Future<R>> futures = new ArrayList<>(input.size());
+            for (T element : input) {
+                futures.add(executorService.submit(() -> mapper.apply(element)));
+            }
+            for (Future<R> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for workers.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
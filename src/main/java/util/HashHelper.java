@@ -0,0 +1,33 @@
+package util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class HashHelper {
+
+    private HashHelper() {
+    }
+
+    /**
+     * @param inputs The parts that are hashed in the given order, as if they were concatenated
+     * @return the SHA-256 digest of the inputs as lower-case hex string
+     */
+    public static String sha256(byte[]... inputs) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        for (byte[] input : inputs) {
+            messageDigest.update(input);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (byte b : messageDigest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+}
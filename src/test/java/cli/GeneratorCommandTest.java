@@ -47,6 +47,13 @@ class GeneratorCommandTest {
         assertTrue(Objects.requireNonNull(generatorCommand.outputDirectory.listFiles()).length > 0);
     }
 
+    @Test
+    void testCallWithoutUploadChannels() {
+        String[] args = {"--upload-channels", "0", ohdmConfigFile.getAbsolutePath()};
+
+        assertNotEquals(0, commandLine.execute(args));
+    }
+
     @Test
     void testCallWithOutputDirectory() {
         String[] args = {"-o", outputDirectory.getAbsolutePath(), ohdmConfigFile.getAbsolutePath()};
@@ -0,0 +1,71 @@
+package db;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourceWrapperTest {
+
+    @AfterEach
+    void tearDown() {
+        DataSourceFactory.closeSharedDataSources();
+    }
+
+    @Test
+    void testWithoutPoolSizeNoPoolIsCreated() {
+        DataSourceWrapper dataSourceWrapper = new DataSourceWrapper(createDataSourceConfig());
+
+        assertFalse(dataSourceWrapper.isPooled());
+        assertTrue(dataSourceWrapper.getDataSource() instanceof PGSimpleDataSource);
+    }
+
+    @Test
+    void testPoolIsConfiguredFromDataSourceConfig() {
+        DataSourceConfig dataSourceConfig = createDataSourceConfig();
+        dataSourceConfig.setPoolSize(4);
+        dataSourceConfig.setPoolIdleTimeout(120);
+        dataSourceConfig.setValidationQuery("SELECT 1");
+
+        try (DataSourceWrapper dataSourceWrapper = new DataSourceWrapper(dataSourceConfig)) {
+            assertTrue(dataSourceWrapper.isPooled());
+            HikariDataSource pooledDataSource = (HikariDataSource) dataSourceWrapper.getDataSource();
+            assertEquals(4, pooledDataSource.getMaximumPoolSize());
+            assertEquals(120000, pooledDataSource.getIdleTimeout());
+            assertEquals("SELECT 1", pooledDataSource.getConnectionTestQuery());
+            assertEquals("ohdm", pooledDataSource.getSchema());
+
+            dataSourceWrapper.setSchema("public");
+            assertEquals("public", dataSourceWrapper.getSchema());
+            // returned connections are reset to the schema of the config
+            assertEquals("ohdm", pooledDataSource.getSchema());
+        }
+    }
+
+    @Test
+    void testSharedWrapperIsReusedForSameConfig() {
+        DataSourceConfig dataSourceConfig = createDataSourceConfig();
+        dataSourceConfig.setPoolSize(2);
+
+        DataSourceWrapper first = DataSourceFactory.getSharedDataSourceWrapper(dataSourceConfig);
+        DataSourceWrapper second = DataSourceFactory.getSharedDataSourceWrapper(dataSourceConfig);
+        DataSourceWrapper other = DataSourceFactory.getSharedDataSourceWrapper(createDataSourceConfig());
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertSame(first.getDataSource(), DataSourceFactory.createDataSourceFrom(dataSourceConfig));
+    }
+
+    private DataSourceConfig createDataSourceConfig() {
+        DataSourceConfig dataSourceConfig = new DataSourceConfig();
+        dataSourceConfig.setHost("localhost");
+        dataSourceConfig.setPort(5432);
+        dataSourceConfig.setDatabase("ohdm");
+        dataSourceConfig.setUser("user");
+        dataSourceConfig.setPassword("password");
+        dataSourceConfig.setSchema("ohdm");
+        return dataSourceConfig;
+    }
+}
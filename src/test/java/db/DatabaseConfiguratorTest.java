@@ -1,5 +1,7 @@
 package db;
 
+import model.classification.ClassificationClass;
+import model.classification.ClassificationImpl;
 import model.classification.OSMClassification;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -8,13 +10,11 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.sql.Connection;
-import java.sql.DatabaseMetaData;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.sql.*;
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 /**
  * You have to place a file called datasource-config.json with valid connection properties in src/test/resources/.env
@@ -50,6 +50,99 @@ class DatabaseConfiguratorTest {
         }
     }
 
+    @Test
+    void testBatchedTableCreationOnlyCreatesMissingTables() throws SQLException {
+        ClassificationImpl classification = new ClassificationImpl();
+        classification.addClassIfAbsent(new ClassificationClass("highway"));
+        classification.addClassIfAbsent(new ClassificationClass("building"));
+
+        ResultSet existingTables = mock(ResultSet.class);
+        when(existingTables.next()).thenReturn(true, true, false);
+        when(existingTables.getString(1)).thenReturn("highway_lines", "building_polygons");
+        PreparedStatement existingTablesStatement = mock(PreparedStatement.class);
+        when(existingTablesStatement.executeQuery()).thenReturn(existingTables);
+
+        Statement statement = mock(Statement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenReturn(existingTablesStatement);
+        when(connection.createStatement()).thenReturn(statement);
+
+        DataSourceWrapper dataSourceWrapper = mock(DataSourceWrapper.class);
+        when(dataSourceWrapper.getSchema()).thenReturn("ohdm");
+        when(dataSourceWrapper.getConnection()).thenReturn(connection);
+
+        new DatabaseConfigurator(dataSourceWrapper).createTablesForClassification(classification, true);
+
+        verify(existingTablesStatement).setString(1, "ohdm");
+        verify(statement, times(4)).addBatch(contains("CREATE TABLE ohdm."));
+        verify(statement, never()).addBatch(contains("ohdm.highway_lines "));
+        verify(statement, never()).addBatch(contains("ohdm.building_polygons "));
+        verify(statement, times(1)).executeBatch();
+        verify(statement, never()).executeUpdate(anyString());
+        verify(connection).setAutoCommit(false);
+        verify(connection).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    void testBatchedTableCreationRollsBackOnFailure() throws SQLException {
+        ClassificationImpl classification = new ClassificationImpl();
+        classification.addClassIfAbsent(new ClassificationClass("highway"));
+
+        ResultSet existingTables = mock(ResultSet.class);
+        PreparedStatement existingTablesStatement = mock(PreparedStatement.class);
+        when(existingTablesStatement.executeQuery()).thenReturn(existingTables);
+
+        Statement statement = mock(Statement.class);
+        when(statement.executeBatch()).thenThrow(new BatchUpdateException());
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenReturn(existingTablesStatement);
+        when(connection.createStatement()).thenReturn(statement);
+
+        DataSourceWrapper dataSourceWrapper = mock(DataSourceWrapper.class);
+        when(dataSourceWrapper.getSchema()).thenReturn("ohdm");
+        when(dataSourceWrapper.getConnection()).thenReturn(connection);
+
+        DatabaseConfigurator databaseConfigurator = new DatabaseConfigurator(dataSourceWrapper);
+        Assertions.assertThrows(SQLException.class, () -> databaseConfigurator.createTablesForClassification(classification, true));
+
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    void testGetTablesWithRowsChecksAllTablesWithOneQuery() throws SQLException {
+        ResultSet existingTables = mock(ResultSet.class);
+        when(existingTables.next()).thenReturn(true, true, false);
+        when(existingTables.getString(1)).thenReturn("highway_lines", "building_polygons");
+        PreparedStatement existingTablesStatement = mock(PreparedStatement.class);
+        when(existingTablesStatement.executeQuery()).thenReturn(existingTables);
+
+        ResultSet tablesWithRows = mock(ResultSet.class);
+        when(tablesWithRows.next()).thenReturn(true, false);
+        when(tablesWithRows.getString(1)).thenReturn("highway_lines");
+        PreparedStatement rowCheckStatement = mock(PreparedStatement.class);
+        when(rowCheckStatement.executeQuery()).thenReturn(tablesWithRows);
+
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(startsWith("SELECT table_name"))).thenReturn(existingTablesStatement);
+        when(connection.prepareStatement(contains("UNION ALL"))).thenReturn(rowCheckStatement);
+
+        DataSourceWrapper dataSourceWrapper = mock(DataSourceWrapper.class);
+        when(dataSourceWrapper.getSchema()).thenReturn("ohdm");
+        when(dataSourceWrapper.getConnection()).thenReturn(connection);
+
+        Set<String> result = new DatabaseConfigurator(dataSourceWrapper).getTablesWithRows();
+
+        Assertions.assertEquals(Collections.singleton("highway_lines"), result);
+        verify(connection, times(1)).prepareStatement(contains("EXISTS (SELECT 1 FROM \"ohdm\"."));
+        verify(rowCheckStatement).setString(anyInt(), eq("highway_lines"));
+        verify(rowCheckStatement).setString(anyInt(), eq("building_polygons"));
+    }
+
     private Collection<String> getExistingTableNames(Connection connection, String schema) throws SQLException {
         DatabaseMetaData meta = connection.getMetaData();
         ResultSet resultSet = meta.getTables(null, schema, null, new String[]{"TABLE"});
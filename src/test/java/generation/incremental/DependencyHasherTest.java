@@ -0,0 +1,90 @@
+package generation.incremental;
+
+import generation.parser.ConfigParser;
+import model.classification.Classification;
+import model.classification.ClassificationFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyHasherTest {
+
+    private static final String MAP_FEATURES = "[aeroway] {\n" +
+            "    [aerodrome] {\n" +
+            "        [default] {\n" +
+            "            useStyle = Polygon\n" +
+            "        }\n" +
+            "    }\n" +
+            "}\n" +
+            "[military] {\n" +
+            "    sameAs = aeroway\n" +
+            "}\n" +
+            "[highway] {\n" +
+            "    [primary] {\n" +
+            "        [default] {\n" +
+            "            useStyle = Line\n" +
+            "        }\n" +
+            "    }\n" +
+            "}\n";
+
+    private static final String POLYGON_STYLE_GROUP = "<Polygon> {\n * {\n fill: #000080;\n }\n}\n";
+    private static final String CHANGED_POLYGON_STYLE_GROUP = "<Polygon> {\n * {\n fill: #FF0000;\n }\n}\n";
+    private static final String LINE_STYLE_GROUP = "<Line> {\n * {\n stroke: #000000;\n }\n}\n";
+
+    private final Classification classification = ClassificationFactory.getDefaultClassification();
+
+    @Test
+    void testHashesAreStable() {
+        assertDoesNotThrow(() -> {
+            Map<String, String> first = computeHashes(POLYGON_STYLE_GROUP);
+            Map<String, String> second = computeHashes(POLYGON_STYLE_GROUP);
+
+            assertEquals(first, second);
+            assertEquals(3, first.size());
+        });
+    }
+
+    @Test
+    void testTableContentsOnlyChangeAffectedMapFeatures() {
+        assertDoesNotThrow(() -> {
+            Map<String, String> hashes = computeHashes(POLYGON_STYLE_GROUP);
+            Map<String, String> before = DependencyHasher.addTableContents(hashes, new HashSet<>(Arrays.asList("highway_lines")));
+            Map<String, String> after = DependencyHasher.addTableContents(hashes, new HashSet<>(Arrays.asList("highway_lines", "AEROWAY_POINTS")));
+
+            assertNotEquals(before.get("aeroway"), after.get("aeroway"));
+            assertEquals(before.get("military"), after.get("military"));
+            assertEquals(before.get("highway"), after.get("highway"));
+            assertNotEquals(hashes.get("highway"), before.get("highway"));
+        });
+    }
+
+    @Test
+    void testChangedStyleGroupOnlyChangesDependentMapFeatures() {
+        assertDoesNotThrow(() -> {
+            Map<String, String> before = computeHashes(POLYGON_STYLE_GROUP);
+            Map<String, String> after = computeHashes(CHANGED_POLYGON_STYLE_GROUP);
+
+            assertNotEquals(before.get("aeroway"), after.get("aeroway"));
+            // military inherits the changes of aeroway via sameAs
+            assertNotEquals(before.get("military"), after.get("military"));
+            assertEquals(before.get("highway"), after.get("highway"));
+        });
+    }
+
+    @Test
+    void testDefaultsAreHashed() {
+        assertDoesNotThrow(() -> {
+            Map<String, String> hashes = DependencyHasher.computeHashes(ConfigParser.parse(MAP_FEATURES + POLYGON_STYLE_GROUP + LINE_STYLE_GROUP), classification, true);
+
+            classification.getClasses().forEach(classificationClass -> assertTrue(hashes.containsKey(classificationClass.getClassName())));
+        });
+    }
+
+    private Map<String, String> computeHashes(String polygonStyleGroup) throws Exception {
+        return DependencyHasher.computeHashes(ConfigParser.parse(MAP_FEATURES + polygonStyleGroup + LINE_STYLE_GROUP), classification, false);
+    }
+}
@@ -190,6 +190,38 @@ class ConfigParserTest {
         assertEquals(zoomRegion.getMinScaleDenominator(), rule.getMinScaleDenominator());
     }
 
+    @Test
+    void testSinglePassCssParsingProducesSameResult() {
+        assertDoesNotThrow(() -> {
+            ConfigParseResult validatedResult = ConfigParser.parse(sampleConfig);
+            ConfigParseResult singlePassResult = ConfigParser.parse(sampleConfig, true);
+
+            assertEquals(validatedResult.getMapFeatures().size(), singlePassResult.getMapFeatures().size());
+            assertEquals(validatedResult.getStyleGroups().size(), singlePassResult.getStyleGroups().size());
+
+            for (StyleGroup validatedStyleGroup : validatedResult.getStyleGroups()) {
+                StyleGroup singlePassStyleGroup = singlePassResult.getStyleGroups().stream().filter(styleGroup -> styleGroup.getName().equals(validatedStyleGroup.getName())).findFirst().get();
+                assertEquals(validatedStyleGroup.getRules().size(), singlePassStyleGroup.getRules().size());
+
+                Rule validatedRule = validatedStyleGroup.getRules().stream().findFirst().get();
+                Rule singlePassRule = singlePassStyleGroup.getRules().stream().findFirst().get();
+                assertEquals(validatedRule.symbolizers(), singlePassRule.symbolizers());
+            }
+
+            assertStyleGroups(singlePassResult.getStyleGroups());
+        });
+    }
+
+    @Test
+    void testSinglePassCssParsingWithInvalidCss() {
+        String input = "<InvalidStyle> {\n" +
+                "    * {\n" +
+                "        fill #000080;\n" +
+                "    }\n" +
+                "}\n";
+        assertThrows(ParseException.class, () -> ConfigParser.parse(input, true));
+    }
+
     @Test
     void testParseWithInvalidFile() {
         File invalidFile = new File("asdf");
@@ -0,0 +1,47 @@
+package generation.parser;
+
+import model.styling.StyleGroup;
+import org.geotools.styling.Rule;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CssTranslationCacheTest {
+
+    private static final String DUPLICATED_STYLE_GROUPS = "<FirstPolygon> {\n" +
+            "    * {\n" +
+            "        fill: #000080;\n" +
+            "        stroke: #FFFFFF;\n" +
+            "    }\n" +
+            "}\n" +
+            "<SecondPolygon> {\n" +
+            "    * {  fill: #000080;\n" +
+            "         stroke: #FFFFFF; }\n" +
+            "}\n";
+
+    @Test
+    void testIdenticalCssIsTranslatedOnce() {
+        ConfigParseResult result = ConfigParser.parse(DUPLICATED_STYLE_GROUPS);
+        CssTranslationCache cache = ConfigParser.getInstance().cssTranslationCache;
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+
+        Rule firstRule = result.getStyleGroups().stream().filter(styleGroup -> styleGroup.getName().equals("FirstPolygon")).map(StyleGroup::getRules).findFirst().get().iterator().next();
+        Rule secondRule = result.getStyleGroups().stream().filter(styleGroup -> styleGroup.getName().equals("SecondPolygon")).map(StyleGroup::getRules).findFirst().get().iterator().next();
+
+        // every StyleGroup gets its own copy of the rule
+        assertNotSame(firstRule, secondRule);
+        assertNotSame(firstRule.symbolizers().get(0), secondRule.symbolizers().get(0));
+        assertEquals(firstRule.symbolizers(), secondRule.symbolizers());
+        assertEquals("FirstPolygon", firstRule.getName());
+        assertEquals("SecondPolygon", secondRule.getName());
+    }
+
+    @Test
+    void testNormalizeKeepsWhitespaceInQuotes() {
+        assertEquals("* { fill: #000080; }", CssTranslationCache.normalize("  *  {\n\tfill:   #000080;\n}  "));
+        assertEquals("* { label: 'a  b'; }", CssTranslationCache.normalize("* {\n label: 'a  b';\n}"));
+    }
+}
@@ -0,0 +1,73 @@
+package generation.processing;
+
+import model.classification.Classification;
+import model.classification.OSMClassification;
+import model.styling.MapFeature;
+import org.geotools.styling.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeatureTypeStyleMergerTest {
+
+    @Test
+    void mergeFeatureTypeStyles() {
+        Classification classification = OSMClassification.getOSMClassification();
+        Collection<MapFeature> mapFeatures = DefaultsFiller.fillRemaining(new ArrayList<>(), classification);
+        Collection<StyledLayerDescriptor> styledLayerDescriptors = MapFeatureTranslator.createStyledLayerDescriptorsFrom(mapFeatures);
+
+        List<List<Rule>> rulesBeforeMerging = styledLayerDescriptors.stream().map(this::getRules).collect(Collectors.toList());
+        assertEquals(classification.getClasses().stream().mapToInt(classificationClass -> classificationClass.getSubclassNames().size()).sum(),
+                FeatureTypeStyleMerger.countFeatureTypeStyles(styledLayerDescriptors));
+
+        FeatureTypeStyleMerger.mergeFeatureTypeStyles(styledLayerDescriptors);
+
+        assertEquals(styledLayerDescriptors.size(), FeatureTypeStyleMerger.countFeatureTypeStyles(styledLayerDescriptors));
+        int i = 0;
+        for (StyledLayerDescriptor sld : styledLayerDescriptors) {
+            NamedLayer layer = (NamedLayer) sld.layers().get(0);
+            assertEquals(1, layer.styles().size());
+            assertEquals(1, layer.styles().get(0).featureTypeStyles().size());
+            // every rule is kept in the order of the subclasses
+            assertEquals(rulesBeforeMerging.get(i++), getRules(sld));
+        }
+    }
+
+    @Test
+    void keepFeatureTypeStylesWithDifferentOptions() {
+        Classification classification = OSMClassification.getOSMClassification();
+        MapFeature mapFeature = DefaultsFiller.fillRemaining(new ArrayList<>(), classification).stream()
+                .filter(feature -> feature.getSubclasses().size() >= 3)
+                .findFirst().get();
+        StyledLayerDescriptor sld = MapFeatureTranslator.createStyledLayerDescriptorsFrom(Collections.singletonList(mapFeature)).iterator().next();
+        List<Rule> rulesBeforeMerging = getRules(sld);
+
+        // the second subclass is sorted separately, so it can't share a rendering pass with the others
+        NamedLayer layer = (NamedLayer) sld.layers().get(0);
+        layer.styles().get(1).featureTypeStyles().get(0).getOptions().put(FeatureTypeStyle.SORT_BY, "name");
+
+        FeatureTypeStyleMerger.mergeFeatureTypeStyles(sld);
+
+        List<FeatureTypeStyle> featureTypeStyles = layer.styles().get(0).featureTypeStyles();
+        assertEquals(1, layer.styles().size());
+        assertEquals(3, featureTypeStyles.size());
+        assertFalse(featureTypeStyles.get(0).getOptions().containsKey(FeatureTypeStyle.SORT_BY));
+        assertEquals("name", featureTypeStyles.get(1).getOptions().get(FeatureTypeStyle.SORT_BY));
+        assertEquals(mapFeature.getSubclasses().size() - 2, featureTypeStyles.get(2).rules().size());
+        assertEquals(rulesBeforeMerging, getRules(sld));
+        assertEquals(3, featureTypeStyles.stream().map(FeatureTypeStyle::getName).distinct().count());
+    }
+
+    private List<Rule> getRules(StyledLayerDescriptor sld) {
+        return ((NamedLayer) sld.layers().get(0)).styles().stream()
+                .flatMap(style -> style.featureTypeStyles().stream())
+                .flatMap(featureTypeStyle -> featureTypeStyle.rules().stream())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,93 @@
+package generation.processing;
+
+import model.styling.MapFeature;
+import model.styling.MapFeatureSubclass;
+import org.geotools.brewer.styling.builder.RuleBuilder;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.filter.text.cql2.CQLException;
+import org.geotools.filter.text.ecql.ECQL;
+import org.geotools.styling.Rule;
+import org.junit.jupiter.api.Test;
+import org.opengis.filter.Filter;
+import org.opengis.filter.FilterFactory2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterNormalizerTest {
+
+    private final FilterFactory2 filterFactory = CommonFactoryFinder.getFilterFactory2();
+
+    @Test
+    void flattenAndDeduplicate() throws CQLException {
+        Filter subclassFilter = ECQL.toFilter("subclassname = 'primary'");
+        Filter nestedFilter = filterFactory.and(
+                filterFactory.and(ECQL.toFilter("lanes > 2"), subclassFilter),
+                filterFactory.and(Filter.INCLUDE, subclassFilter));
+
+        assertEquals(ECQL.toFilter("lanes > 2 AND subclassname = 'primary'"), FilterNormalizer.normalize(nestedFilter));
+        assertEquals(subclassFilter, FilterNormalizer.normalize(filterFactory.and(Filter.INCLUDE, subclassFilter)));
+        assertEquals(subclassFilter, FilterNormalizer.normalize(filterFactory.not(filterFactory.not(subclassFilter))));
+    }
+
+    @Test
+    void removeTautologies() throws CQLException {
+        assertEquals(Filter.INCLUDE, FilterNormalizer.normalize(filterFactory.and(Filter.INCLUDE, ECQL.toFilter("1 = 1"))));
+        assertEquals(Filter.INCLUDE, FilterNormalizer.normalize(ECQL.toFilter("lanes > 2 OR 1 = 1")));
+        assertEquals(ECQL.toFilter("lanes > 2"), FilterNormalizer.normalize(ECQL.toFilter("lanes > 2 OR 1 = 2")));
+    }
+
+    @Test
+    void detectContradictions() throws CQLException {
+        assertEquals(Filter.EXCLUDE, FilterNormalizer.normalize(ECQL.toFilter("subclassname = 'primary' AND subclassname = 'secondary'")));
+        assertEquals(Filter.EXCLUDE, FilterNormalizer.normalize(ECQL.toFilter("lanes = 2 AND lanes <> 2")));
+        assertEquals(Filter.EXCLUDE, FilterNormalizer.normalize(ECQL.toFilter("subclassname = 'path' AND (subclassname = 'primary' OR subclassname = 'secondary')")));
+        assertEquals(Filter.EXCLUDE, FilterNormalizer.normalize(ECQL.toFilter("lanes > 2 AND NOT (lanes > 2)")));
+
+        // equal values of different types can match
+        assertNotEquals(Filter.EXCLUDE, FilterNormalizer.normalize(ECQL.toFilter("lanes = 2 AND lanes = '2'")));
+        // text attributes don't match literals that only have the same numeric value or differ in whitespace
+        assertNotEquals(Filter.EXCLUDE, FilterNormalizer.normalize(ECQL.toFilter("ref = '2.0' AND ref <> '2'")));
+        assertNotEquals(Filter.EXCLUDE, FilterNormalizer.normalize(ECQL.toFilter("name = ' x' AND name <> 'x'")));
+        assertNotEquals(Filter.EXCLUDE, FilterNormalizer.normalize(ECQL.toFilter("lanes = 2 AND lanes <> '2'")));
+        assertNotEquals(Filter.EXCLUDE, FilterNormalizer.normalize(ECQL.toFilter("subclassname = 'primary' AND (subclassname = 'primary' OR subclassname = 'secondary')")));
+    }
+
+    @Test
+    void normalizeFilters() throws CQLException {
+        Rule nestedRule = createRule(filterFactory.and(
+                filterFactory.and(ECQL.toFilter("lanes > 2"), ECQL.toFilter("subclassname = 'primary'")),
+                ECQL.toFilter("subclassname = 'primary'")));
+        Rule neverMatchingRule = createRule(ECQL.toFilter("subclassname = 'secondary' AND subclassname = 'primary'"));
+        MapFeatureSubclass primary = new MapFeatureSubclass("primary", Arrays.asList(nestedRule, neverMatchingRule));
+        MapFeatureSubclass secondary = new MapFeatureSubclass("secondary", Collections.singletonList(neverMatchingRule));
+        Collection<MapFeature> mapFeatures = Collections.singletonList(new MapFeature("highway", Arrays.asList(primary, secondary)));
+
+        FilterNormalizer filterNormalizer = new FilterNormalizer();
+        Collection<MapFeature> normalizedMapFeatures = filterNormalizer.normalizeFilters(mapFeatures);
+
+        List<MapFeatureSubclass> subclasses = new ArrayList<>(normalizedMapFeatures.iterator().next().getSubclasses());
+        assertEquals(1, subclasses.size());
+        List<Rule> rules = new ArrayList<>(subclasses.get(0).getRules());
+        assertEquals(1, rules.size());
+        assertEquals(ECQL.toFilter("lanes > 2 AND subclassname = 'primary'"), rules.get(0).getFilter());
+        // the passed rules are not modified
+        assertNotEquals(rules.get(0).getFilter(), nestedRule.getFilter());
+
+        assertEquals(2, filterNormalizer.getRemovedRules());
+        // one duplicated conjunct and two predicates of every removed rule
+        assertEquals(5, filterNormalizer.getRemovedPredicates());
+    }
+
+    private Rule createRule(Filter filter) {
+        RuleBuilder ruleBuilder = new RuleBuilder();
+        ruleBuilder.line().stroke().width(1);
+        ruleBuilder.filter(filter);
+        return ruleBuilder.build();
+    }
+}
@@ -0,0 +1,56 @@
+package generation.processing;
+
+import model.styling.MapFeature;
+import model.styling.MapFeatureSubclass;
+import org.geotools.brewer.styling.builder.RuleBuilder;
+import org.geotools.filter.text.cql2.CQLException;
+import org.geotools.filter.text.ecql.ECQL;
+import org.geotools.styling.Rule;
+import org.geotools.styling.StyledLayerDescriptor;
+import org.junit.jupiter.api.Test;
+import org.opengis.filter.Filter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterPushdownCheckerTest {
+
+    @Test
+    void check() throws CQLException {
+        MapFeatureSubclass primary = new MapFeatureSubclass("primary", Arrays.asList(
+                createRule("subclassname = 'primary' AND lanes > 2"),
+                createRule("subclassname = 'primary' AND strCapitalize(name) = 'Main'")));
+        MapFeatureSubclass secondary = new MapFeatureSubclass("secondary", Collections.singletonList(createRule("subclassname = 'secondary'")));
+        Collection<StyledLayerDescriptor> styledLayerDescriptors = MapFeatureTranslator.createStyledLayerDescriptorsFrom(
+                Collections.singletonList(new MapFeature("highway_lines", Arrays.asList(primary, secondary))));
+
+        FilterPushdownChecker filterPushdownChecker = new FilterPushdownChecker(false);
+        List<FilterPushdownChecker.UnpushableFilter> unpushableFilters = filterPushdownChecker.check(styledLayerDescriptors);
+
+        assertEquals(3, filterPushdownChecker.getCheckedRules());
+        assertEquals(1, unpushableFilters.size());
+        assertEquals("highway_lines", unpushableFilters.get(0).getSldName());
+        assertEquals(1, unpushableFilters.get(0).getRuleIndex());
+        assertEquals(ECQL.toFilter("strCapitalize(name) = 'Main'"), unpushableFilters.get(0).getPostFilter());
+    }
+
+    @Test
+    void functionEncoding() throws CQLException {
+        Filter filter = ECQL.toFilter("strToUpperCase(name) = 'MAIN'");
+
+        assertEquals(filter, new FilterPushdownChecker(false).getPostFilter(filter));
+        assertEquals(Filter.INCLUDE, new FilterPushdownChecker(true).getPostFilter(filter));
+        assertEquals(Filter.INCLUDE, new FilterPushdownChecker(false).getPostFilter(Filter.INCLUDE));
+    }
+
+    private Rule createRule(String filter) throws CQLException {
+        RuleBuilder ruleBuilder = new RuleBuilder();
+        ruleBuilder.line().stroke().width(1);
+        ruleBuilder.filter(ECQL.toFilter(filter));
+        return ruleBuilder.build();
+    }
+}
@@ -4,15 +4,11 @@ import model.classification.ClassificationClass;
 import model.classification.OSMClassification;
 import model.styling.MapFeature;
 import model.styling.MapFeatureSubclass;
-import org.geotools.styling.LineSymbolizer;
-import org.geotools.styling.PointSymbolizer;
-import org.geotools.styling.PolygonSymbolizer;
-import org.geotools.styling.Rule;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.styling.*;
 import org.junit.jupiter.api.Test;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -66,4 +62,39 @@ class MapFeatureGeometrySplitterTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void splitRulesWithMixedSymbolizers() {
+        StyleFactory styleFactory = CommonFactoryFinder.getStyleFactory();
+        Rule mixedRule = styleFactory.createRule();
+        mixedRule.symbolizers().add(styleFactory.createLineSymbolizer());
+        mixedRule.symbolizers().add(styleFactory.createPolygonSymbolizer());
+        mixedRule.symbolizers().add(styleFactory.createTextSymbolizer());
+        Rule textOnlyRule = styleFactory.createRule();
+        textOnlyRule.symbolizers().add(styleFactory.createTextSymbolizer());
+
+        MapFeatureSubclass subclass = new MapFeatureSubclass("undefined", new ArrayList<>(Arrays.asList(mixedRule, textOnlyRule)));
+        MapFeature mapFeature = new MapFeature("aeroway", new ArrayList<>(Collections.singletonList(subclass)));
+
+        Map<String, MapFeature> splitMapFeatures = MapFeatureGeometrySplitter.splitMapFeaturesIntoGeometryTypes(Collections.singletonList(mapFeature)).stream()
+                .collect(Collectors.toMap(MapFeature::getName, splitMapFeature -> splitMapFeature));
+
+        assertEquals(0, getSingleSubclass(splitMapFeatures.get("aeroway_points")).getRules().size());
+        List<Symbolizer> lineSymbolizers = getSingleSubclass(splitMapFeatures.get("aeroway_lines")).getRules().iterator().next().symbolizers();
+        assertEquals(2, lineSymbolizers.size());
+        assertTrue(lineSymbolizers.get(0) instanceof LineSymbolizer);
+        assertTrue(lineSymbolizers.get(1) instanceof TextSymbolizer);
+        List<Symbolizer> polygonSymbolizers = getSingleSubclass(splitMapFeatures.get("aeroway_polygons")).getRules().iterator().next().symbolizers();
+        assertEquals(2, polygonSymbolizers.size());
+        assertTrue(polygonSymbolizers.get(0) instanceof PolygonSymbolizer);
+
+        // the original rule is not modified
+        assertEquals(3, mixedRule.symbolizers().size());
+        assertEquals(2, subclass.getRules().size());
+    }
+
+    private MapFeatureSubclass getSingleSubclass(MapFeature mapFeature) {
+        assertEquals(1, mapFeature.getSubclasses().size());
+        return mapFeature.getSubclasses().iterator().next();
+    }
+}
@@ -5,16 +5,20 @@ import generation.parser.ConfigParser;
 import model.classification.Classification;
 import model.classification.OSMClassification;
 import model.styling.MapFeature;
+import model.styling.MapFeatureReference;
 import model.styling.MapFeatureSubclass;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.*;
 
 class MapFeatureReferenceResolverTest {
 
@@ -51,6 +55,32 @@ class MapFeatureReferenceResolverTest {
         assertEquals(0, ohdmBoundaryMapFeature.getSubclasses().size());
     }
 
+    @Test
+    void resolveMapFeatureReferenceChainsAndReportInvalidReferences() {
+        ConfigParseResult parseResult = createParseResult(Paths.get(resourceDirectory.toString(), "mapfeaturereferences", "chain_example.ohdmconfig").toFile());
+        assertNotNull(parseResult);
+
+        MapFeatureReferenceResolver mapFeatureReferenceResolver = new MapFeatureReferenceResolver(OSMClassification.getOSMClassification());
+        List<MapFeature> mapFeatures = new ArrayList<>(mapFeatureReferenceResolver.resolveMapFeatureReferences(parseResult.getMapFeatures()));
+
+        // the order of the MapFeatures is kept
+        assertEquals(parseResult.getMapFeatures().stream().map(MapFeature::getName).collect(Collectors.toList()),
+                mapFeatures.stream().map(MapFeature::getName).collect(Collectors.toList()));
+
+        // the chain is resolved case-insensitively
+        for (String name : Arrays.asList("military", "waterway", "emergency")) {
+            MapFeature mapFeature = mapFeatures.stream().filter(m -> m.getName().equals(name)).findFirst().get();
+            assertFalse(mapFeature instanceof MapFeatureReference);
+            assertEquals(1, mapFeature.getSubclasses().size());
+        }
+
+        // cycles and missing targets stay unresolved
+        for (String name : Arrays.asList("boundary", "historic", "landuse", "leisure")) {
+            MapFeature mapFeature = mapFeatures.stream().filter(m -> m.getName().equals(name)).findFirst().get();
+            assertTrue(mapFeature instanceof MapFeatureReference);
+        }
+    }
+
     private ConfigParseResult createParseResult(File file) {
         try {
             return ConfigParser.parse(file);
@@ -6,10 +6,14 @@ import model.classification.OSMClassification;
 import model.styling.MapFeature;
 import org.geotools.styling.NamedLayerImpl;
 import org.geotools.styling.StyledLayerDescriptor;
+import org.geotools.xml.styling.SLDTransformer;
 import org.junit.jupiter.api.Test;
+import util.ConcurrencyHelper;
 
+import javax.xml.transform.TransformerException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -40,4 +44,38 @@ class MapFeatureTranslatorTest {
             assertEquals(matchingClass.getSubclassNames().size(), styledLayer.styles().size());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void createStyledLayerDescriptorsInParallel() {
+        Classification classification = OSMClassification.getOSMClassification();
+        Collection<MapFeature> mapFeatures = DefaultsFiller.fillRemaining(new ArrayList<>(), classification);
+        mapFeatures = MapFeatureGeometrySplitter.splitMapFeaturesIntoGeometryTypes(mapFeatures);
+
+        Collection<StyledLayerDescriptor> sequentialSLDs = MapFeatureTranslator.createStyledLayerDescriptorsFrom(mapFeatures);
+        List<String> sequentialOutput = transform(sequentialSLDs, 1);
+
+        int workerCount = Runtime.getRuntime().availableProcessors();
+        Collection<StyledLayerDescriptor> parallelSLDs = MapFeatureTranslator.createStyledLayerDescriptorsFrom(mapFeatures, workerCount);
+        List<String> parallelOutput = transform(parallelSLDs, workerCount);
+
+        // the parallel pipeline has to produce the same SLDs in the same order
+        assertEquals(sequentialOutput.size(), parallelOutput.size());
+        Iterator<StyledLayerDescriptor> parallelIterator = parallelSLDs.iterator();
+        for (StyledLayerDescriptor sequentialSLD : sequentialSLDs) {
+            assertEquals(sequentialSLD.getName(), parallelIterator.next().getName());
+        }
+        assertEquals(sequentialOutput, parallelOutput);
+    }
+
+    private List<String> transform(Collection<StyledLayerDescriptor> styledLayerDescriptors, int workerCount) {
+        return ConcurrencyHelper.mapInOrder(styledLayerDescriptors, sld -> {
+            try {
+                SLDTransformer transformer = new SLDTransformer();
+                transformer.setIndentation(2);
+                return transformer.transform(sld);
+            } catch (TransformerException e) {
+                throw new IllegalStateException(e);
+            }
+        }, workerCount);
+    }
+}
@@ -4,6 +4,12 @@ import generation.parser.ConfigParseResult;
 import generation.parser.ConfigParser;
 import model.classification.Classification;
 import model.classification.OSMClassification;
+import model.styling.MapFeature;
+import model.styling.MapFeatureSubclass;
+import org.geotools.brewer.styling.builder.RuleBuilder;
+import org.geotools.filter.text.cql2.CQLException;
+import org.geotools.filter.text.ecql.ECQL;
+import org.geotools.styling.NamedLayer;
 import org.geotools.styling.StyledLayerDescriptor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,7 +19,9 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -71,4 +79,60 @@ class ParseResultProcessorTest {
         assertNotNull(styledLayerDescriptorsFromParseResult);
         assertEquals(0, styledLayerDescriptorsFromParseResult.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getSLDWithPrunedGeometryTypes() {
+        String lineOnlyConfig = "[aeroway] {\n" +
+                "    [undefined] {\n" +
+                "        [default] {\n" +
+                "            useStyle = SimpleLine\n" +
+                "        }\n" +
+                "    }\n" +
+                "}\n" +
+                "<SimpleLine> {\n" +
+                "    * {\n" +
+                "        stroke: blue;\n" +
+                "    }\n" +
+                "}\n";
+        Collection<StyledLayerDescriptor> unprunedStyledLayerDescriptors = parseResultProcessor.getStyledLayerDescriptorsFromParseResult(ConfigParser.parse(lineOnlyConfig), false);
+
+        parseResultProcessor.setPruneEmptyGeometryTypes(true);
+        Collection<StyledLayerDescriptor> prunedStyledLayerDescriptors = parseResultProcessor.getStyledLayerDescriptorsFromParseResult(ConfigParser.parse(lineOnlyConfig), false);
+
+        assertEquals(3, unprunedStyledLayerDescriptors.size());
+        assertEquals(1, prunedStyledLayerDescriptors.size());
+        assertEquals("aeroway_lines", prunedStyledLayerDescriptors.iterator().next().getName());
+        prunedStyledLayerDescriptors.forEach(sld -> assertTrue(((NamedLayer) sld.layers().get(0)).styles().stream()
+                .allMatch(style -> style.featureTypeStyles().stream().allMatch(featureTypeStyle -> !featureTypeStyle.rules().isEmpty()))));
+    }
+
+    @Test
+    void getSLDWithoutGeometryTypesEmptiedByNormalization() throws CQLException {
+        RuleBuilder pointRuleBuilder = new RuleBuilder();
+        pointRuleBuilder.point().graphic().mark().name("circle");
+        pointRuleBuilder.filter(ECQL.toFilter("subclassname = 'undefined'"));
+        RuleBuilder lineRuleBuilder = new RuleBuilder();
+        lineRuleBuilder.line().stroke().width(1);
+        lineRuleBuilder.filter(ECQL.toFilter("subclassname = 'undefined' AND subclassname = 'aerodrome'"));
+        MapFeatureSubclass subclass = new MapFeatureSubclass("undefined", new ArrayList<>(Arrays.asList(pointRuleBuilder.build(), lineRuleBuilder.build())));
+        ConfigParseResult parseResult = new ConfigParseResult(
+                new ArrayList<>(Collections.singletonList(new MapFeature("aeroway", new ArrayList<>(Collections.singletonList(subclass))))), new ArrayList<>());
+
+        parseResultProcessor.setPruneEmptyGeometryTypes(true);
+        parseResultProcessor.setNormalizeFilters(true);
+        Collection<StyledLayerDescriptor> styledLayerDescriptors = parseResultProcessor.getStyledLayerDescriptorsFromParseResult(parseResult, false);
+
+        // the rule of the lines can never match, so only the points are left
+        assertEquals(1, styledLayerDescriptors.size());
+        assertEquals("aeroway_points", styledLayerDescriptors.iterator().next().getName());
+    }
+
+    @Test
+    void getSLDOnlyForTablesWithRows() throws IOException {
+        parseResultProcessor.setTablesWithRows(Collections.singleton("AEROWAY_polygons"));
+        Collection<StyledLayerDescriptor> styledLayerDescriptors = parseResultProcessor.getStyledLayerDescriptorsFromParseResult(ConfigParser.parse(sampleConfig), true);
+
+        assertEquals(1, styledLayerDescriptors.size());
+        assertEquals("aeroway_polygons", styledLayerDescriptors.iterator().next().getName());
+    }
+}
@@ -4,6 +4,7 @@ import generation.parser.ConfigParseResult;
 import generation.parser.ConfigParser;
 import model.styling.MapFeature;
 import model.styling.MapFeatureSubclass;
+import model.styling.PlaceholderRule;
 import model.styling.StyleGroup;
 import org.geotools.styling.Rule;
 import org.geotools.styling.Symbolizer;
@@ -17,8 +18,7 @@ import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.*;
 
 class PlaceholderRuleResolverTest {
 
@@ -73,6 +73,39 @@ class PlaceholderRuleResolverTest {
         assertEqualSymbolizers(simpleLineStyleGroup.getRules().stream().findFirst().get().symbolizers(), simpleLineRule.symbolizers());
     }
 
+    @Test
+    void testResolvePlaceholderRulesWithDeepChain() {
+        ConfigParseResult parseResult = createParseResult(Paths.get(resourceDirectory.toString(), "placeholderrules", "deep_chain_example.ohdmconfig").toFile());
+        assertNotNull(parseResult);
+        Collection<StyleGroup> styleGroups = parseResult.getStyleGroups();
+
+        Collection<MapFeature> mapFeatures = PlaceholderRuleResolver.resolvePlaceholderRules(parseResult.getMapFeatures(), styleGroups);
+
+        StyleGroup level3 = styleGroups.stream().filter(styleGroup -> styleGroup.getName().equals("Level3")).findFirst().get();
+        assertEquals(2, level3.getRules().size());
+        assertTrue(level3.getRules().stream().noneMatch(rule -> rule instanceof PlaceholderRule));
+
+        MapFeatureSubclass subclass = mapFeatures.stream().findFirst().get().getSubclasses().stream().findFirst().get();
+        assertEquals(2, subclass.getRules().size());
+        assertTrue(subclass.getRules().stream().anyMatch(rule -> rule.getName().equals("SimplePolygon")));
+        assertTrue(subclass.getRules().stream().anyMatch(rule -> rule.getName().equals("SimpleLine")));
+    }
+
+    @Test
+    void testResolvePlaceholderRulesWithCycle() {
+        ConfigParseResult parseResult = createParseResult(Paths.get(resourceDirectory.toString(), "placeholderrules", "cyclic_example.ohdmconfig").toFile());
+        assertNotNull(parseResult);
+        Collection<StyleGroup> styleGroups = parseResult.getStyleGroups();
+
+        Collection<MapFeature> mapFeatures = assertDoesNotThrow(() -> PlaceholderRuleResolver.resolvePlaceholderRules(parseResult.getMapFeatures(), styleGroups));
+
+        // the references of the cycle are removed, the other references are still resolved
+        styleGroups.forEach(styleGroup -> assertTrue(styleGroup.getRules().stream().noneMatch(rule -> rule instanceof PlaceholderRule)));
+        MapFeatureSubclass subclass = mapFeatures.stream().findFirst().get().getSubclasses().stream().findFirst().get();
+        assertEquals(1, subclass.getRules().size());
+        assertEquals("SimplePolygon", subclass.getRules().stream().findFirst().get().getName());
+    }
+
     private void assertEqualSymbolizers(List<Symbolizer> symbolizers1, List<Symbolizer> symbolizers2) {
         assertEquals(symbolizers1.size(), symbolizers2.size());
         for (int i = 0; i < symbolizers1.size(); i++) {
@@ -0,0 +1,90 @@
+package generation.processing;
+
+import model.styling.MapFeature;
+import model.styling.MapFeatureSubclass;
+import model.styling.zoom.ZoomRegion;
+import org.geotools.brewer.styling.builder.RuleBuilder;
+import org.geotools.filter.text.cql2.CQLException;
+import org.geotools.filter.text.ecql.ECQL;
+import org.geotools.styling.Rule;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScaleRangeMergerTest {
+
+    @Test
+    void mergeTouchingScaleRanges() throws CQLException {
+        Rule smallScales = createRule(Color.RED, 500e3, 500e6);
+        Rule largeScales = createRule(Color.BLUE, 1e3, 35e3);
+        Rule mediumScales = createRule(Color.RED, 35e3, 500e3);
+
+        ScaleRangeMerger scaleRangeMerger = new ScaleRangeMerger();
+        List<Rule> rules = mergeScaleRanges(scaleRangeMerger, smallScales, largeScales, mediumScales);
+
+        assertEquals(2, rules.size());
+        assertEquals(35e3, rules.get(0).getMinScaleDenominator());
+        assertEquals(500e6, rules.get(0).getMaxScaleDenominator());
+        assertSame(largeScales, rules.get(1));
+        assertEquals(1, scaleRangeMerger.getMergedRules());
+        assertEquals(0, scaleRangeMerger.getOverlappingRules());
+        // the passed rules are not modified
+        assertEquals(500e3, smallScales.getMinScaleDenominator());
+    }
+
+    @Test
+    void keepRulesWithDifferentStylesOrGaps() throws CQLException {
+        ScaleRangeMerger scaleRangeMerger = new ScaleRangeMerger();
+
+        assertEquals(2, mergeScaleRanges(scaleRangeMerger, createRule(Color.RED, 500e3, 500e6), createRule(Color.BLUE, 35e3, 500e3)).size());
+        // the scales between zoom levels 10 and 11 are not covered by either zoom region
+        assertEquals(2, mergeScaleRanges(scaleRangeMerger, createRule(Color.RED, "0-10"), createRule(Color.RED, "11-14")).size());
+        assertEquals(0, scaleRangeMerger.getMergedRules());
+    }
+
+    @Test
+    void keepPaintOrder() throws CQLException {
+        // the casing is painted between both rules at the scales of the second rule
+        List<Rule> rules = mergeScaleRanges(new ScaleRangeMerger(),
+                createRule(Color.RED, 500e3, 500e6), createRule(Color.BLACK, 1e3, 500e3), createRule(Color.RED, 35e3, 500e3));
+
+        assertEquals(3, rules.size());
+    }
+
+    @Test
+    void reportOverlappingRules() throws CQLException {
+        ScaleRangeMerger scaleRangeMerger = new ScaleRangeMerger();
+        List<Rule> rules = mergeScaleRanges(scaleRangeMerger, createRule(Color.RED, "0-12"), createRule(Color.RED, "10-14"));
+
+        assertEquals(2, rules.size());
+        assertEquals(1, scaleRangeMerger.getOverlappingRules());
+    }
+
+    private List<Rule> mergeScaleRanges(ScaleRangeMerger scaleRangeMerger, Rule... rules) {
+        MapFeatureSubclass subclass = new MapFeatureSubclass("primary", Arrays.asList(rules));
+        Collection<MapFeature> mapFeatures = scaleRangeMerger.mergeScaleRanges(Collections.singletonList(new MapFeature("highway", Collections.singletonList(subclass))));
+        return new ArrayList<>(mapFeatures.iterator().next().getSubclasses().iterator().next().getRules());
+    }
+
+    private Rule createRule(Color color, String zoomRegionString) throws CQLException {
+        ZoomRegion zoomRegion = new ZoomRegion(zoomRegionString);
+        return createRule(color, zoomRegion.getMinScaleDenominator(), zoomRegion.getMaxScaleDenominator());
+    }
+
+    private Rule createRule(Color color, double minScaleDenominator, double maxScaleDenominator) throws CQLException {
+        RuleBuilder ruleBuilder = new RuleBuilder();
+        ruleBuilder.line().stroke().color(color).width(1);
+        ruleBuilder.filter(ECQL.toFilter("subclassname = 'primary'"));
+        Rule rule = ruleBuilder.build();
+        rule.setMinScaleDenominator(minScaleDenominator);
+        rule.setMaxScaleDenominator(maxScaleDenominator);
+        return rule;
+    }
+}
@@ -0,0 +1,94 @@
+package generation.processing;
+
+import model.classification.Classification;
+import model.classification.OSMClassification;
+import model.styling.MapFeature;
+import model.styling.MapFeatureSubclass;
+import org.geotools.brewer.styling.builder.RuleBuilder;
+import org.geotools.filter.text.cql2.CQLException;
+import org.geotools.filter.text.ecql.ECQL;
+import org.geotools.styling.Rule;
+import org.junit.jupiter.api.Test;
+import org.opengis.filter.And;
+import org.opengis.filter.Filter;
+import org.opengis.filter.Or;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubclassRuleMergerTest {
+
+    @Test
+    void mergeDefaultRules() {
+        Classification classification = OSMClassification.getOSMClassification();
+        Collection<MapFeature> mapFeatures = DefaultsFiller.fillRemaining(new ArrayList<>(), classification);
+        mapFeatures = MapFeatureGeometrySplitter.splitMapFeaturesIntoGeometryTypes(mapFeatures);
+
+        Collection<MapFeature> mergedMapFeatures = SubclassRuleMerger.mergeIdenticalSubclasses(mapFeatures);
+
+        // all subclasses of a class share the default style
+        assertEquals(mapFeatures.size(), mergedMapFeatures.size());
+        assertEquals(mergedMapFeatures.size(), SubclassRuleMerger.countRules(mergedMapFeatures));
+        for (MapFeature mapFeature : mergedMapFeatures) {
+            String className = mapFeature.getName().substring(0, mapFeature.getName().lastIndexOf('_'));
+            int subclassCount = classification.getClass(className).getSubclassNames().size();
+            Rule rule = mapFeature.getSubclasses().iterator().next().getRules().iterator().next();
+            if (subclassCount > 1) {
+                assertTrue(rule.getFilter() instanceof Or);
+                assertEquals(subclassCount, ((Or) rule.getFilter()).getChildren().size());
+            }
+        }
+    }
+
+    @Test
+    void mergeSubclassesWithIdenticalRules() throws CQLException {
+        MapFeatureSubclass primary = new MapFeatureSubclass("primary", Arrays.asList(
+                createRule(Color.RED, "subclassname = 'primary' AND lanes > 2"),
+                createRule(Color.BLACK, "subclassname = 'primary'")));
+        MapFeatureSubclass path = new MapFeatureSubclass("path", Arrays.asList(
+                createRule(Color.GREEN, "subclassname = 'path'")));
+        MapFeatureSubclass secondary = new MapFeatureSubclass("secondary", Arrays.asList(
+                createRule(Color.RED, "lanes > 2 AND subclassname = 'secondary'"),
+                createRule(Color.BLACK, "subclassname = 'secondary'")));
+        MapFeature mapFeature = new MapFeature("highway", Arrays.asList(primary, path, secondary));
+
+        MapFeature mergedMapFeature = SubclassRuleMerger.mergeIdenticalSubclasses(mapFeature);
+
+        List<MapFeatureSubclass> subclasses = new ArrayList<>(mergedMapFeature.getSubclasses());
+        assertEquals(2, subclasses.size());
+        assertEquals("primary", subclasses.get(0).getSubclassName());
+        assertSame(path, subclasses.get(1));
+
+        List<Rule> rules = new ArrayList<>(subclasses.get(0).getRules());
+        assertEquals(2, rules.size());
+        assertEquals(ECQL.toFilter("lanes > 2 AND (subclassname = 'primary' OR subclassname = 'secondary')"), rules.get(0).getFilter());
+        assertEquals(ECQL.toFilter("subclassname = 'primary' OR subclassname = 'secondary'"), rules.get(1).getFilter());
+        assertTrue(rules.get(0).getFilter() instanceof And);
+    }
+
+    @Test
+    void keepSubclassesWithDifferentRules() throws CQLException {
+        MapFeatureSubclass primary = new MapFeatureSubclass("primary", Arrays.asList(createRule(Color.RED, "subclassname = 'primary'")));
+        MapFeatureSubclass secondary = new MapFeatureSubclass("secondary", Arrays.asList(createRule(Color.BLUE, "subclassname = 'secondary'")));
+        MapFeatureSubclass track = new MapFeatureSubclass("track", Arrays.asList(createRule(Color.RED, Filter.INCLUDE)));
+        MapFeature mapFeature = new MapFeature("highway", Arrays.asList(primary, secondary, track));
+
+        assertSame(mapFeature, SubclassRuleMerger.mergeIdenticalSubclasses(mapFeature));
+    }
+
+    private Rule createRule(Color color, String filter) throws CQLException {
+        return createRule(color, ECQL.toFilter(filter));
+    }
+
+    private Rule createRule(Color color, Filter filter) {
+        RuleBuilder ruleBuilder = new RuleBuilder();
+        ruleBuilder.line().stroke().color(color).width(1);
+        ruleBuilder.filter(filter);
+        return ruleBuilder.build();
+    }
+}
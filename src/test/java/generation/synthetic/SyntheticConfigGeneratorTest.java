@@ -0,0 +1,82 @@
+package generation.synthetic;
+
+import generation.parser.ConfigParseResult;
+import generation.parser.ConfigParser;
+import generation.processing.ParseResultProcessor;
+import model.classification.OSMClassification;
+import model.styling.MapFeatureReference;
+import org.geotools.styling.StyledLayerDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticConfigGeneratorTest {
+
+    @Test
+    void testGeneratedConfigCanBeProcessed() {
+        SyntheticConfig syntheticConfig = new SyntheticConfigGenerator(OSMClassification.getOSMClassification(), 1).generate(250);
+
+        ConfigParseResult parseResult = assertDoesNotThrow(() -> ConfigParser.parse(syntheticConfig.getContent()));
+        assertEquals(250, parseResult.getMapFeatures().size());
+        assertTrue(syntheticConfig.getClassification().getClasses().size() >= 250);
+
+        Collection<StyledLayerDescriptor> styledLayerDescriptors = new ParseResultProcessor(syntheticConfig.getClassification())
+                .getStyledLayerDescriptorsFromParseResult(parseResult, false);
+        assertEquals(250 * 3, styledLayerDescriptors.size());
+    }
+
+    @Test
+    void testSameSeedGeneratesSameConfig() {
+        String first = new SyntheticConfigGenerator(OSMClassification.getOSMClassification(), 7).generate(50).getContent();
+        String second = new SyntheticConfigGenerator(OSMClassification.getOSMClassification(), 7).generate(50).getContent();
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testSameAsChainsAreLimited() {
+        SyntheticConfigSettings settings = new SyntheticConfigSettings();
+        settings.setSameAsRatio(1);
+        settings.setMaxSameAsChainLength(2);
+        SyntheticConfig syntheticConfig = new SyntheticConfigGenerator(OSMClassification.getOSMClassification(), settings, 3).generate(20);
+
+        ConfigParseResult parseResult = ConfigParser.parse(syntheticConfig.getContent());
+        Map<String, String> references = parseResult.getMapFeatures().stream()
+                .filter(mapFeature -> mapFeature instanceof MapFeatureReference)
+                .map(mapFeature -> (MapFeatureReference) mapFeature)
+                .collect(Collectors.toMap(MapFeatureReference::getName, MapFeatureReference::getNameOfReferencedMapFeature));
+
+        // only the first MapFeature has nothing to reference
+        assertEquals(19, references.size());
+        Function<String, Integer> chainLength = name -> {
+            int length = 0;
+            for (String current = name; references.containsKey(current); current = references.get(current)) {
+                length++;
+            }
+            return length;
+        };
+        references.keySet().forEach(name -> assertTrue(chainLength.apply(name) <= 2));
+    }
+
+    @Test
+    void testUseStyleRatio() {
+        SyntheticConfigSettings settings = new SyntheticConfigSettings();
+        settings.setUseStyleRatio(0);
+        settings.setNestedStyleGroupRatio(0);
+        String content = new SyntheticConfigGenerator(OSMClassification.getOSMClassification(), settings, 5).generate(20).getContent();
+
+        assertFalse(content.contains("useStyle"));
+        assertDoesNotThrow(() -> ConfigParser.parse(content));
+    }
+
+    @Test
+    void testInvalidRatioIsRejected() {
+        SyntheticConfigSettings settings = new SyntheticConfigSettings();
+        settings.setSameAsRatio(1.5);
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticConfigGenerator(OSMClassification.getOSMClassification(), settings, 1));
+    }
+}
@@ -13,7 +13,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -243,4 +245,32 @@ class ConfigurationGeneratorTest {
             assertNotNull(matchingFile);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCreateConfigurationFilesWithWorkersKeepsOrder() {
+        List<File> sldFileList = Arrays.asList(tempDirectoryFile.listFiles());
+
+        ServerConnectionConfig serverConnectionConfig = new ServerConnectionConfig();
+        serverConnectionConfig.setWorkspaceName("myWorkspaceName");
+        serverConnectionConfig.setNamespaceName("myNamespaceName");
+        serverConnectionConfig.setStoreName("myStoreName");
+        DataSourceConfig dataSourceConfig = new DataSourceConfig();
+        dataSourceConfig.setHost("myHost");
+        dataSourceConfig.setDatabase("myDatabase");
+        dataSourceConfig.setUser("myUser");
+        dataSourceConfig.setPassword("myPassword");
+        dataSourceConfig.setPort(5432);
+
+        assertDoesNotThrow(() -> {
+            File sequentialDirectory = Files.createTempDirectory("geoserver-sequential").toFile();
+            File parallelDirectory = Files.createTempDirectory("geoserver-parallel").toFile();
+
+            Collection<File> sequentialFiles = new ConfigurationGenerator(sldFileList, 1).createConfigurationFiles(dataSourceConfig, serverConnectionConfig, sequentialDirectory);
+            Collection<File> parallelFiles = new ConfigurationGenerator(sldFileList, 4).createConfigurationFiles(dataSourceConfig, serverConnectionConfig, parallelDirectory);
+
+            List<String> sequentialPaths = sequentialFiles.stream().map(file -> sequentialDirectory.toPath().relativize(file.toPath()).toString()).collect(Collectors.toList());
+            List<String> parallelPaths = parallelFiles.stream().map(file -> parallelDirectory.toPath().relativize(file.toPath()).toString()).collect(Collectors.toList());
+            assertEquals(sequentialPaths, parallelPaths);
+        });
+    }
+}
@@ -0,0 +1,76 @@
+package geoserver.cataloginfo.bounds;
+
+import org.geoserver.catalog.CatalogBuilder;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CachedBoundsProviderTest {
+
+    private final ReferencedEnvelope exactBounds = new ReferencedEnvelope(1, 2, 3, 4, DefaultGeographicCRS.WGS84);
+
+    private File cacheFile;
+    private NativeBoundsProvider exactBoundsProvider;
+    private TableStatistics tableStatistics;
+    private FeatureTypeInfo featureTypeInfo;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cacheFile = new File(Files.createTempDirectory("bounds-cache-test").toFile(), "cache.json");
+
+        exactBoundsProvider = mock(NativeBoundsProvider.class);
+        when(exactBoundsProvider.getNativeBounds(any(), any())).thenReturn(exactBounds);
+
+        tableStatistics = mock(TableStatistics.class);
+        when(tableStatistics.getEstimatedRowCount("highway_lines")).thenReturn(100L);
+
+        featureTypeInfo = mock(FeatureTypeInfo.class);
+        when(featureTypeInfo.getNativeName()).thenReturn("highway_lines");
+        when(featureTypeInfo.getSRS()).thenReturn("EPSG:4326");
+        when(featureTypeInfo.getNativeCRS()).thenReturn(DefaultGeographicCRS.WGS84);
+    }
+
+    @Test
+    void testBoundsAreReusedAcrossRuns() throws Exception {
+        CachedBoundsProvider firstRun = new CachedBoundsProvider(exactBoundsProvider, tableStatistics, cacheFile);
+        assertEquals(exactBounds, firstRun.getNativeBounds(featureTypeInfo, mock(CatalogBuilder.class)));
+        firstRun.finish();
+
+        CachedBoundsProvider secondRun = new CachedBoundsProvider(exactBoundsProvider, tableStatistics, cacheFile);
+        ReferencedEnvelope cachedBounds = secondRun.getNativeBounds(featureTypeInfo, mock(CatalogBuilder.class));
+
+        assertEquals(exactBounds, cachedBounds);
+        verify(exactBoundsProvider, times(1)).getNativeBounds(any(), any());
+    }
+
+    @Test
+    void testChangedRowCountInvalidatesCache() throws Exception {
+        CachedBoundsProvider firstRun = new CachedBoundsProvider(exactBoundsProvider, tableStatistics, cacheFile);
+        firstRun.getNativeBounds(featureTypeInfo, mock(CatalogBuilder.class));
+        firstRun.finish();
+
+        when(tableStatistics.getEstimatedRowCount("highway_lines")).thenReturn(200L);
+        CachedBoundsProvider secondRun = new CachedBoundsProvider(exactBoundsProvider, tableStatistics, cacheFile);
+        secondRun.getNativeBounds(featureTypeInfo, mock(CatalogBuilder.class));
+
+        verify(exactBoundsProvider, times(2)).getNativeBounds(any(), any());
+    }
+
+    @Test
+    void testInvalidCacheFileIsIgnored() throws Exception {
+        Files.write(cacheFile.toPath(), "not json".getBytes());
+
+        CachedBoundsProvider cachedBoundsProvider = new CachedBoundsProvider(exactBoundsProvider, tableStatistics, cacheFile);
+        assertEquals(exactBounds, cachedBoundsProvider.getNativeBounds(featureTypeInfo, mock(CatalogBuilder.class)));
+    }
+}
@@ -0,0 +1,33 @@
+package geoserver.cataloginfo.bounds;
+
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.junit.jupiter.api.Test;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FixedBoundsProviderTest {
+
+    @Test
+    void testBoundsCoverTheWorldForWebMercator() throws Exception {
+        CoordinateReferenceSystem webMercator = CRS.decode("EPSG:3857");
+        FeatureTypeInfo featureTypeInfo = mock(FeatureTypeInfo.class);
+        when(featureTypeInfo.getNativeCRS()).thenReturn(webMercator);
+
+        ReferencedEnvelope bounds = new FixedBoundsProvider().getNativeBounds(featureTypeInfo, null);
+
+        assertNotNull(bounds);
+        assertTrue(bounds.getWidth() > 4.0E7);
+        assertTrue(CRS.equalsIgnoreMetadata(webMercator, bounds.getCoordinateReferenceSystem()));
+    }
+
+    @Test
+    void testMissingCRSReturnsNull() throws Exception {
+        FeatureTypeInfo featureTypeInfo = mock(FeatureTypeInfo.class);
+        assertNull(new FixedBoundsProvider().getNativeBounds(featureTypeInfo, null));
+    }
+}
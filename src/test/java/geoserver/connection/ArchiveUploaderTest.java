@@ -0,0 +1,110 @@
+package geoserver.connection;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ArchiveUploaderTest {
+
+    private Path localDirectory;
+    private File styleFile;
+    private File layerFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        localDirectory = Files.createTempDirectory("archive-upload-test");
+        styleFile = Files.write(localDirectory.resolve("style.sld"), "style".getBytes(StandardCharsets.UTF_8)).toFile();
+        layerFile = Files.write(localDirectory.resolve("layer.xml"), "layer".getBytes(StandardCharsets.UTF_8)).toFile();
+    }
+
+    @Test
+    void testWriteArchive() {
+        assertDoesNotThrow(() -> {
+            Map<String, File> entries = new LinkedHashMap<>();
+            entries.put("styles/style.sld", styleFile);
+            entries.put("workspaces/ohdm/store/layer/layer.xml", layerFile);
+
+            File archive = localDirectory.resolve("upload.tar.gz").toFile();
+            ArchiveUploader.writeArchive(entries, archive);
+
+            Map<String, String> extractedEntries = new HashMap<>();
+            try (TarArchiveInputStream tarInputStream = new TarArchiveInputStream(new GZIPInputStream(new FileInputStream(archive)))) {
+                TarArchiveEntry entry;
+                while ((entry = tarInputStream.getNextTarEntry()) != null) {
+                    extractedEntries.put(entry.getName(), IOUtils.toString(tarInputStream, StandardCharsets.UTF_8));
+                }
+            }
+
+            assertEquals(2, extractedEntries.size());
+            assertEquals("style", extractedEntries.get("styles/style.sld"));
+            assertEquals("layer", extractedEntries.get("workspaces/ohdm/store/layer/layer.xml"));
+        });
+    }
+
+    @Test
+    void testUploadExtractsArchiveInRoot() {
+        ServerConnection serverConnection = mock(ServerConnection.class);
+        when(serverConnection.isUnixSystem()).thenReturn(true);
+        when(serverConnection.uploadFileToServer(any(File.class), anyString())).thenReturn(true);
+        when(serverConnection.executeCommand(anyString(), anyLong())).thenReturn(true);
+
+        Map<File, String> destinationPaths = new LinkedHashMap<>();
+        destinationPaths.put(styleFile, "/geoserver/data/styles/style.sld");
+        destinationPaths.put(layerFile, "/geoserver/data/workspaces/ohdm/layer.xml");
+
+        ArchiveUploader archiveUploader = new ArchiveUploader(serverConnection, "/geoserver/data/");
+        assertTrue(archiveUploader.upload(destinationPaths));
+
+        verify(serverConnection, times(1)).uploadFileToServer(any(File.class), startsWith("/geoserver/data/ohdm-upload"));
+        verify(serverConnection).executeCommand(matches("tar -xzf '/geoserver/data/ohdm-upload.*\\.tar\\.gz' -C '/geoserver/data' && rm -f .*"), anyLong());
+    }
+
+    @Test
+    void testFailedExtractionRemovesArchive() {
+        ServerConnection serverConnection = mock(ServerConnection.class);
+        when(serverConnection.isUnixSystem()).thenReturn(true);
+        when(serverConnection.uploadFileToServer(any(File.class), anyString())).thenReturn(true);
+        when(serverConnection.executeCommand(startsWith("tar "), anyLong())).thenReturn(false);
+        when(serverConnection.executeCommand(startsWith("rm "), anyLong())).thenReturn(true);
+
+        Map<File, String> destinationPaths = new LinkedHashMap<>();
+        destinationPaths.put(styleFile, "/geoserver/data/styles/style.sld");
+        destinationPaths.put(layerFile, "/geoserver/data/workspaces/ohdm/layer.xml");
+
+        ArchiveUploader archiveUploader = new ArchiveUploader(serverConnection, "/geoserver/data");
+        assertFalse(archiveUploader.upload(destinationPaths));
+
+        verify(serverConnection).executeCommand(matches("rm -f '/geoserver/data/ohdm-upload.*\\.tar\\.gz'"), anyLong());
+    }
+
+    @Test
+    void testUploadOutsideOfRootIsRejected() {
+        ServerConnection serverConnection = mock(ServerConnection.class);
+        when(serverConnection.isUnixSystem()).thenReturn(true);
+
+        Map<File, String> destinationPaths = new LinkedHashMap<>();
+        destinationPaths.put(styleFile, "/geoserver/data/styles/style.sld");
+        destinationPaths.put(layerFile, "/etc/layer.xml");
+
+        ArchiveUploader archiveUploader = new ArchiveUploader(serverConnection, "/geoserver/data");
+        assertFalse(archiveUploader.upload(destinationPaths));
+        verify(serverConnection, never()).uploadFileToServer(any(File.class), anyString());
+    }
+}
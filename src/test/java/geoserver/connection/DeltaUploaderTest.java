@@ -0,0 +1,103 @@
+package geoserver.connection;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DeltaUploaderTest {
+
+    private static final String REMOTE_ROOT = "/geoserver/data";
+
+    // simulates the files on the server, maps the remote path to the content
+    private Map<String, byte[]> remoteFiles;
+    private ServerConnection serverConnection;
+    private File firstFile;
+    private File secondFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        remoteFiles = new HashMap<>();
+        serverConnection = mock(ServerConnection.class);
+
+        when(serverConnection.uploadFileToServer(any(File.class), anyString())).thenAnswer(invocation -> {
+            File file = invocation.getArgument(0);
+            remoteFiles.put(invocation.getArgument(1), Files.readAllBytes(file.toPath()));
+            return true;
+        });
+        when(serverConnection.getRemoteFileSize(anyString())).thenAnswer(invocation -> {
+            byte[] content = remoteFiles.get(invocation.<String>getArgument(0));
+            return content != null ? (long) content.length : -1L;
+        });
+        when(serverConnection.downloadFileFromServer(anyString(), any(File.class))).thenAnswer(invocation -> {
+            File file = invocation.getArgument(1);
+            Files.write(file.toPath(), remoteFiles.get(invocation.<String>getArgument(0)));
+            return true;
+        });
+
+        Path tempDirectory = Files.createTempDirectory("delta-upload-test");
+        firstFile = Files.write(tempDirectory.resolve("first.sld"), "first".getBytes(StandardCharsets.UTF_8)).toFile();
+        secondFile = Files.write(tempDirectory.resolve("second.sld"), "second".getBytes(StandardCharsets.UTF_8)).toFile();
+    }
+
+    @Test
+    void testUnchangedFilesAreSkipped() {
+        assertDoesNotThrow(() -> {
+            upload();
+
+            DeltaUploader secondRun = upload();
+            assertEquals(0, secondRun.getUploadedFiles());
+            assertEquals(2, secondRun.getSkippedFiles());
+            assertEquals(firstFile.length() + secondFile.length(), secondRun.getSkippedBytes());
+        });
+    }
+
+    @Test
+    void testChangedFilesAreUploaded() {
+        assertDoesNotThrow(() -> {
+            upload();
+            Files.write(firstFile.toPath(), "changed".getBytes(StandardCharsets.UTF_8));
+
+            DeltaUploader secondRun = upload();
+            assertEquals(1, secondRun.getUploadedFiles());
+            assertEquals(1, secondRun.getSkippedFiles());
+            assertArrayEquals("changed".getBytes(StandardCharsets.UTF_8), remoteFiles.get(remotePathOf(firstFile)));
+        });
+    }
+
+    @Test
+    void testRemotelyDeletedFilesAreUploaded() {
+        assertDoesNotThrow(() -> {
+            upload();
+            remoteFiles.remove(remotePathOf(secondFile));
+
+            DeltaUploader secondRun = upload();
+            assertEquals(1, secondRun.getUploadedFiles());
+            assertTrue(remoteFiles.containsKey(remotePathOf(secondFile)));
+        });
+    }
+
+    private DeltaUploader upload() {
+        DeltaUploader deltaUploader = new DeltaUploader(serverConnection, REMOTE_ROOT);
+        deltaUploader.upload(firstFile, remotePathOf(firstFile));
+        deltaUploader.upload(secondFile, remotePathOf(secondFile));
+        deltaUploader.finish();
+        return deltaUploader;
+    }
+
+    private String remotePathOf(File file) {
+        return Paths.get(REMOTE_ROOT, "styles", file.getName()).toString();
+    }
+}
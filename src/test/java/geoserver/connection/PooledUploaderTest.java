@@ -0,0 +1,113 @@
+package geoserver.connection;
+
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.server.subsystem.sftp.SftpSubsystemFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Uploads to an embedded SSH server whose SFTP root is a temporary directory.
+ */
+class PooledUploaderTest {
+
+    private SshServer sshServer;
+    private Path remoteRoot;
+    private Path localDirectory;
+    private ServerConnectionConfig serverConnectionConfig;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        remoteRoot = Files.createTempDirectory("pooled-upload-remote");
+        localDirectory = Files.createTempDirectory("pooled-upload-local");
+
+        SimpleGeneratorHostKeyProvider hostKeyProvider = new SimpleGeneratorHostKeyProvider(localDirectory.resolve("hostkey.ser"));
+        hostKeyProvider.setAlgorithm("RSA");
+
+        sshServer = SshServer.setUpDefaultServer();
+        sshServer.setHost("localhost");
+        sshServer.setPort(0);
+        sshServer.setKeyPairProvider(hostKeyProvider);
+        sshServer.setPasswordAuthenticator((user, password, session) -> "user".equals(user) && "password".equals(password));
+        sshServer.setSubsystemFactories(Collections.singletonList(new SftpSubsystemFactory()));
+        sshServer.setFileSystemFactory(new VirtualFileSystemFactory(remoteRoot));
+        sshServer.start();
+
+        serverConnectionConfig = new ServerConnectionConfig();
+        serverConnectionConfig.setHost("localhost");
+        serverConnectionConfig.setPort(sshServer.getPort());
+        serverConnectionConfig.setUser("user");
+        serverConnectionConfig.setPassword("password");
+        serverConnectionConfig.setPath("/");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        sshServer.stop(true);
+    }
+
+    @Test
+    void testUploadFilesConcurrently() {
+        assertDoesNotThrow(() -> {
+            Map<File, String> destinationPaths = new LinkedHashMap<>();
+            for (int i = 0; i < 50; i++) {
+                File file = Files.write(localDirectory.resolve("style_" + i + ".sld"), ("content " + i).getBytes(StandardCharsets.UTF_8)).toFile();
+                destinationPaths.put(file, "/styles/" + (i % 3) + "/" + file.getName());
+            }
+
+            PooledUploader pooledUploader = new PooledUploader(serverConnectionConfig, 4);
+            assertTrue(pooledUploader.connect());
+            Map<File, Boolean> results = pooledUploader.upload(destinationPaths);
+            pooledUploader.disconnect();
+
+            assertEquals(destinationPaths.size(), results.size());
+            assertTrue(results.values().stream().allMatch(uploaded -> uploaded));
+            for (Map.Entry<File, String> destinationPath : destinationPaths.entrySet()) {
+                Path remoteFile = Paths.get(remoteRoot.toString(), destinationPath.getValue());
+                assertArrayEquals(Files.readAllBytes(destinationPath.getKey().toPath()), Files.readAllBytes(remoteFile));
+            }
+        });
+    }
+
+    @Test
+    void testFailedUploadIsReported() {
+        assertDoesNotThrow(() -> {
+            File existingFile = Files.write(localDirectory.resolve("existing.sld"), "content".getBytes(StandardCharsets.UTF_8)).toFile();
+            File missingFile = localDirectory.resolve("missing.sld").toFile();
+
+            Map<File, String> destinationPaths = new LinkedHashMap<>();
+            destinationPaths.put(existingFile, "/styles/existing.sld");
+            destinationPaths.put(missingFile, "/styles/missing.sld");
+
+            PooledUploader pooledUploader = new PooledUploader(serverConnectionConfig, 2, 2);
+            assertTrue(pooledUploader.connect());
+            Map<File, Boolean> results = pooledUploader.upload(destinationPaths);
+            pooledUploader.disconnect();
+
+            assertTrue(results.get(existingFile));
+            assertFalse(results.get(missingFile));
+        });
+    }
+
+    @Test
+    void testConnectWithWrongPassword() {
+        serverConnectionConfig.setPassword("wrong");
+        PooledUploader pooledUploader = new PooledUploader(serverConnectionConfig, 2);
+        assertFalse(pooledUploader.connect());
+        assertThrows(IllegalStateException.class, () -> pooledUploader.upload(Collections.emptyMap()));
+    }
+}
@@ -0,0 +1,61 @@
+package metrics;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRecorderTest {
+
+    @Test
+    void testStageIsRecordedWhenClosed() {
+        MetricsRecorder metricsRecorder = new MetricsRecorder();
+
+        try (MetricsRecorder.Stage stage = metricsRecorder.startStage("translation")) {
+            List<String> allocated = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                allocated.add("sld" + i);
+            }
+            stage.count("slds", allocated.size());
+            stage.count("slds", 5);
+            assertTrue(metricsRecorder.getStages().isEmpty());
+        }
+
+        assertEquals(1, metricsRecorder.getStages().size());
+        StageMetrics stageMetrics = metricsRecorder.getStages().get(0);
+        assertEquals("translation", stageMetrics.getName());
+        assertEquals(1005L, (long) stageMetrics.getCounts().get("slds"));
+        assertTrue(stageMetrics.getWallTimeMillis() >= 0);
+        assertTrue(stageMetrics.getAllocatedBytes() != 0);
+    }
+
+    @Test
+    void testWriteReport() {
+        assertDoesNotThrow(() -> {
+            MetricsRecorder metricsRecorder = new MetricsRecorder();
+            try (MetricsRecorder.Stage stage = metricsRecorder.startStage("parse")) {
+                stage.count("mapFeatures", 3);
+            }
+            try (MetricsRecorder.Stage ignored = metricsRecorder.startStage("splitting")) {
+            }
+
+            File reportFile = File.createTempFile("metrics", ".json");
+            reportFile.deleteOnExit();
+            metricsRecorder.writeReport(reportFile);
+
+            JsonObject report = new JsonParser().parse(new String(Files.readAllBytes(reportFile.toPath()), StandardCharsets.UTF_8)).getAsJsonObject();
+            assertTrue(report.has("totalWallTimeMillis"));
+            assertEquals(2, report.getAsJsonArray("stages").size());
+            JsonObject parseStage = report.getAsJsonArray("stages").get(0).getAsJsonObject();
+            assertEquals("parse", parseStage.get("name").getAsString());
+            assertEquals(3, parseStage.getAsJsonObject("counts").get("mapFeatures").getAsInt());
+        });
+    }
+}
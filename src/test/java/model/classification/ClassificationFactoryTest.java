@@ -0,0 +1,62 @@
+package model.classification;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Uses a stand-in for the classification table that generates its rows on demand, so the loader has to
+ * build the classification while iterating instead of relying on a materialized result set.
+ */
+class ClassificationFactoryTest {
+
+    private static final int ROW_COUNT = 1_000_000;
+    private static final int CLASS_COUNT = 10;
+    private static final int SUBCLASS_COUNT = 1000;
+
+    @Test
+    void testGetClassificationFromDataSourceWithLargeTable() throws SQLException {
+        int[] currentRow = {-1};
+        // stubOnly prevents mockito from recording every invocation on the result set
+        ResultSet resultSet = mock(ResultSet.class, withSettings().stubOnly());
+        when(resultSet.next()).thenAnswer(invocation -> ++currentRow[0] < ROW_COUNT);
+        when(resultSet.getString("class")).thenAnswer(invocation -> "class" + (currentRow[0] % CLASS_COUNT));
+        when(resultSet.getString("subclassname")).thenAnswer(invocation -> "subclass" + (currentRow[0] % SUBCLASS_COUNT));
+
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.createStatement(anyInt(), anyInt())).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        Classification classification = ClassificationFactory.getClassificationFromDataSource(dataSource, 5000);
+
+        assertEquals(ROW_COUNT, currentRow[0]);
+        assertEquals(CLASS_COUNT, classification.getClasses().size());
+        for (ClassificationClass classificationClass : classification.getClasses()) {
+            // every class gets every subclass whose index has the same remainder
+            assertEquals(SUBCLASS_COUNT / CLASS_COUNT, classificationClass.getSubclassNames().size());
+        }
+        assertTrue(classification.getClass("class3").hasSubClass("subclass13"));
+        assertFalse(classification.getClass("class3").hasSubClass("subclass14"));
+
+        // the cursor is only used by the driver if autocommit is disabled and a fetch size is set
+        verify(connection).setAutoCommit(false);
+        verify(statement).setFetchSize(5000);
+        verify(statement).executeQuery("SELECT class, subclassname FROM classification");
+        verify(connection).commit();
+        verify(connection).setAutoCommit(true);
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,45 @@
+package model.classification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassificationImplTest {
+
+    @Test
+    void testLookupsByName() {
+        Classification classification = new ClassificationImpl();
+        ClassificationClass testclass1 = new ClassificationClass("testclass1", Arrays.asList("undefined", "testsubclass"));
+        ClassificationClass testclass2 = new ClassificationClass("testclass2");
+        classification.addClassIfAbsent(testclass1);
+        classification.addClassIfAbsent(testclass2);
+        // adding a class with an existing name must not replace the existing one
+        classification.addClassIfAbsent(new ClassificationClass("testclass1"));
+
+        assertEquals(2, classification.getClasses().size());
+        assertSame(testclass1, classification.getClass("testclass1"));
+        assertSame(testclass2, classification.getClass("testclass2"));
+        assertNull(classification.getClass("testclass3"));
+
+        assertTrue(classification.hasClass(new ClassificationClass("testclass1")));
+        assertTrue(classification.hasClass(new ClassificationClass("testclass2")));
+        assertFalse(classification.hasClass(new ClassificationClass("testclass3")));
+
+        assertEquals(Arrays.asList("undefined", "testsubclass"), classification.getSubClassesForClass(testclass1));
+        assertNull(classification.getSubClassesForClass(new ClassificationClass("testclass3")));
+    }
+
+    @Test
+    void testSubclassLookups() {
+        ClassificationClass classificationClass = new ClassificationClass("testclass");
+        classificationClass.addSubClass("undefined");
+        classificationClass.addSubClass("testsubclass");
+        classificationClass.addSubClass("undefined");
+
+        assertEquals(Arrays.asList("undefined", "testsubclass"), classificationClass.getSubclassNames());
+        assertTrue(classificationClass.hasSubClass("testsubclass"));
+        assertFalse(classificationClass.hasSubClass("othersubclass"));
+    }
+}
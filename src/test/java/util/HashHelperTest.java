@@ -0,0 +1,17 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashHelperTest {
+
+    @Test
+    void testSha256() {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", HashHelper.sha256("abc".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(HashHelper.sha256("abc".getBytes(StandardCharsets.UTF_8)),
+                HashHelper.sha256("a".getBytes(StandardCharsets.UTF_8), "bc".getBytes(StandardCharsets.UTF_8)));
+    }
+}